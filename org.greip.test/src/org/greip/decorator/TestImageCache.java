@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.decorator;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.greip.decorator.ImageCache.DecodedImage;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestImageCache {
+
+	private final AtomicInteger loadCount = new AtomicInteger();
+
+	private Function<ImageLoader, ImageData[]> load() {
+		return loader -> {
+			loadCount.incrementAndGet();
+			return new ImageData[] { new ImageData(10, 10, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF)) };
+		};
+	}
+
+	@After
+	public void tearDown() {
+		ImageCache.setBudget(ImageCache.DEFAULT_BUDGET);
+		ImageCache.clear();
+	}
+
+	@Test
+	public void testAcquireShared() {
+		final DecodedImage image1 = ImageCache.acquire("a", load());
+		final DecodedImage image2 = ImageCache.acquire("a", load());
+
+		assertSame(image1, image2);
+		assertEquals(1, loadCount.get());
+		assertEquals(image1.frames[0].data.length, ImageCache.getSize());
+
+		ImageCache.release(image1);
+		ImageCache.release(image2);
+	}
+
+	@Test
+	public void testReleasedImagesStayCachedWithinBudget() {
+		ImageCache.release(ImageCache.acquire("a", load()));
+		ImageCache.release(ImageCache.acquire("a", load()));
+
+		assertEquals(1, loadCount.get());
+	}
+
+	@Test
+	public void testImagesInUseAreNotEvicted() {
+		final DecodedImage image = ImageCache.acquire("a", load());
+		final long size = ImageCache.getSize();
+
+		ImageCache.setBudget(0);
+		assertEquals(size, ImageCache.getSize());
+		assertSame(image, ImageCache.acquire("a", load()));
+		assertEquals(1, loadCount.get());
+
+		ImageCache.release(image);
+		assertEquals(size, ImageCache.getSize());
+
+		ImageCache.release(image);
+		assertEquals(0, ImageCache.getSize());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		ImageCache.release(ImageCache.acquire("a", load()));
+		ImageCache.setBudget(2 * ImageCache.getSize());
+		ImageCache.release(ImageCache.acquire("b", load()));
+		ImageCache.release(ImageCache.acquire("a", load()));
+		ImageCache.release(ImageCache.acquire("c", load()));
+		assertEquals(3, loadCount.get());
+
+		ImageCache.release(ImageCache.acquire("a", load()));
+		assertEquals(3, loadCount.get());
+
+		ImageCache.release(ImageCache.acquire("b", load()));
+		assertEquals(4, loadCount.get());
+	}
+
+	@Test
+	public void testUncachedImagesAreIgnored() {
+		final DecodedImage image = ImageCache.decode(load());
+
+		ImageCache.release(image);
+		assertEquals(0, ImageCache.getSize());
+	}
+
+	@Test
+	public void testConcurrentAcquireDecodesOnce() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		final Function<ImageLoader, ImageData[]> blockingLoad = loader -> {
+			started.countDown();
+			try {
+				proceed.await(5, TimeUnit.SECONDS);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return load().apply(loader);
+		};
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			final Future<DecodedImage> image1 = executor.submit(() -> ImageCache.acquire("a", blockingLoad));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			final Future<DecodedImage> image2 = executor.submit(() -> ImageCache.acquire("a", blockingLoad));
+
+			Thread.sleep(50);
+			proceed.countDown();
+
+			assertSame(image1.get(5, TimeUnit.SECONDS), image2.get(5, TimeUnit.SECONDS));
+			assertEquals(1, loadCount.get());
+
+			ImageCache.release(image1.get());
+			ImageCache.release(image2.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailedDecodeIsThrownToWaitingThreads() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		final Function<ImageLoader, ImageData[]> failingLoad = loader -> {
+			loadCount.incrementAndGet();
+			started.countDown();
+			try {
+				proceed.await(5, TimeUnit.SECONDS);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new IllegalStateException();
+		};
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			final Future<DecodedImage> image1 = executor.submit(() -> ImageCache.acquire("a", failingLoad));
+			assertTrue(started.await(5, TimeUnit.SECONDS));
+			final Future<DecodedImage> image2 = executor.submit(() -> ImageCache.acquire("a", failingLoad));
+
+			Thread.sleep(50);
+			proceed.countDown();
+
+			assertFailure(image1);
+			assertFailure(image2);
+			assertEquals(1, loadCount.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void assertFailure(final Future<DecodedImage> image) throws Exception {
+		try {
+			image.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (final ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.decorator;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.Point;
+import org.junit.Test;
+
+public class TestThumbnailDecoder {
+
+	@Test
+	public void testSubsampling() {
+		assertEquals(1, ThumbnailDecoder.getSubsampling(4000, 3000, new Point(SWT.DEFAULT, SWT.DEFAULT)));
+		assertEquals(10, ThumbnailDecoder.getSubsampling(4000, 3000, new Point(200, SWT.DEFAULT)));
+		assertEquals(5, ThumbnailDecoder.getSubsampling(4000, 3000, new Point(SWT.DEFAULT, 300)));
+		assertEquals(15, ThumbnailDecoder.getSubsampling(4000, 3000, new Point(100, 100)));
+		assertEquals(1, ThumbnailDecoder.getSubsampling(300, 200, new Point(200, 200)));
+		assertEquals(1, ThumbnailDecoder.getSubsampling(100, 100, new Point(200, 200)));
+	}
+
+	@Test
+	public void testLoadSubsampled() throws Exception {
+		final File file = File.createTempFile("thumbnail", ".png");
+
+		try {
+			ImageIO.write(new BufferedImage(800, 400, BufferedImage.TYPE_INT_ARGB), "png", file);
+
+			final ImageLoader loader = new ImageLoader();
+			final ImageData[] imageData = ThumbnailDecoder.load(loader, file.getPath(), new Point(100, SWT.DEFAULT));
+
+			assertEquals(1, imageData.length);
+			assertEquals(200, imageData[0].width);
+			assertEquals(100, imageData[0].height);
+			assertEquals(200, loader.logicalScreenWidth);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testCorruptImage() throws Exception {
+		final File file = File.createTempFile("thumbnail", ".png");
+
+		try {
+			Files.write(file.toPath(), new byte[] { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R' });
+			ThumbnailDecoder.load(new ImageLoader(), file.getPath(), new Point(100, SWT.DEFAULT));
+			fail();
+		} catch (final SWTException e) {
+			assertEquals(SWT.ERROR_INVALID_IMAGE, e.code);
+		} finally {
+			file.delete();
+		}
+	}
+}
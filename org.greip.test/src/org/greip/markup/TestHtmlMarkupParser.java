@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+
+import org.eclipse.swt.SWT;
+import org.greip.markup.CompiledMarkup.Run;
+import org.junit.Test;
+
+public class TestHtmlMarkupParser {
+
+	@Test
+	public void testCompileWithoutDisplay() throws ParseException {
+		final CompiledMarkup compiledMarkup = new HtmlMarkupParser()
+				.compile("<b>bold</b><br/><style fg='#FF0000' size='12'>red</style> <a href='x'>link</a>");
+
+		assertEquals("bold\nred link", compiledMarkup.getPlainText());
+		assertEquals(5, compiledMarkup.runs.length);
+
+		final Run bold = compiledMarkup.runs[0];
+		assertEquals(SWT.BOLD, bold.fontStyle);
+		assertEquals(0, bold.fontHeight);
+		assertNull(bold.fontName);
+
+		assertTrue(compiledMarkup.runs[1].lineBreak);
+
+		final Run red = compiledMarkup.runs[2];
+		assertEquals(0xFF0000, red.foreground);
+		assertEquals(12, red.fontHeight);
+		assertEquals(SWT.NONE, red.fontStyle);
+
+		final Run link = compiledMarkup.runs[4];
+		assertEquals("x", link.link);
+		assertEquals(CompiledMarkup.LINK_COLOR, link.foreground);
+		assertTrue(link.underline);
+	}
+
+	@Test(expected = ParseException.class)
+	public void testCompileUnknownTag() throws ParseException {
+		new HtmlMarkupParser().compile("<x>text</x>");
+	}
+}
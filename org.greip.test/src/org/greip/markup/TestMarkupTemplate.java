@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.swt.custom.StyleRange;
+import org.junit.Test;
+
+public class TestMarkupTemplate {
+
+	private static StyleRange range(final int start, final int length) {
+		final StyleRange range = new StyleRange();
+		range.start = start;
+		range.length = length;
+		return range;
+	}
+
+	// "CPU ${value} %" with ranges "CPU " [0,4), "${value}" [4,12), " %" [12,14)
+	private static ParsedMarkup parsedTemplate() {
+		return new ParsedMarkup("CPU ${value} %", new StyleRange[] { range(0, 4), range(4, 8), range(12, 2) });
+	}
+
+	@Test
+	public void testApply() {
+		final MarkupTemplate template = new MarkupTemplate("<b>CPU</b> <style fg='#f00'>${value}</style> %");
+		final ParsedMarkup parsedMarkup = template.apply(parsedTemplate(), Collections.singletonMap("value", "42"));
+
+		assertEquals("CPU 42 %", parsedMarkup.getPlainText());
+		assertEquals(3, parsedMarkup.styleRanges.length);
+		assertEquals(0, parsedMarkup.styleRanges[0].start);
+		assertEquals(4, parsedMarkup.styleRanges[0].length);
+		assertEquals(4, parsedMarkup.styleRanges[1].start);
+		assertEquals(2, parsedMarkup.styleRanges[1].length);
+		assertEquals(6, parsedMarkup.styleRanges[2].start);
+		assertEquals(2, parsedMarkup.styleRanges[2].length);
+	}
+
+	@Test
+	public void testMissingValue() {
+		final MarkupTemplate template = new MarkupTemplate("CPU ${value} %");
+		final ParsedMarkup parsedMarkup = template.apply(parsedTemplate(), Collections.emptyMap());
+
+		assertEquals("CPU  %", parsedMarkup.getPlainText());
+		assertEquals(2, parsedMarkup.styleRanges.length);
+		assertEquals(4, parsedMarkup.styleRanges[1].start);
+	}
+
+	@Test
+	public void testPlaceholderAcrossRanges() {
+		final Map<String, String> values = new HashMap<>();
+		values.put("a", "xyz");
+		values.put("b", "1");
+
+		final MarkupTemplate template = new MarkupTemplate("${a}<b>-</b>${b}");
+		final ParsedMarkup parsedTemplate = new ParsedMarkup("${a}-${b}", new StyleRange[] { range(0, 2), range(2, 3), range(5, 4) });
+		final ParsedMarkup parsedMarkup = template.apply(parsedTemplate, values);
+
+		assertEquals("xyz-1", parsedMarkup.getPlainText());
+		assertEquals(3, parsedMarkup.styleRanges.length);
+		assertEquals(0, parsedMarkup.styleRanges[0].start);
+		assertEquals(3, parsedMarkup.styleRanges[0].length);
+		assertEquals(3, parsedMarkup.styleRanges[1].start);
+		assertEquals(1, parsedMarkup.styleRanges[1].length);
+		assertEquals(4, parsedMarkup.styleRanges[2].start);
+		assertEquals(1, parsedMarkup.styleRanges[2].length);
+	}
+
+	@Test
+	public void testNoPlaceholders() {
+		final ParsedMarkup parsedTemplate = new ParsedMarkup("CPU", new StyleRange[] { range(0, 3) });
+		assertSame(parsedTemplate, new MarkupTemplate("CPU").apply(parsedTemplate, Collections.emptyMap()));
+	}
+}
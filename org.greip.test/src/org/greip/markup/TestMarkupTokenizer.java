@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import static org.junit.Assert.*;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.greip.markup.MarkupTokenizer.TokenHandler;
+import org.junit.Test;
+
+public class TestMarkupTokenizer {
+
+	private static class RecordingHandler implements TokenHandler {
+
+		private final List<String> tokens = new ArrayList<>();
+
+		@Override
+		public void startElement(final String name, final Map<String, String> attributes, final int offset) {
+			tokens.add("<" + name + (attributes.isEmpty() ? "" : " " + attributes) + ">");
+		}
+
+		@Override
+		public void endElement(final String name, final int offset) {
+			tokens.add("</" + name + ">");
+		}
+
+		@Override
+		public void characters(final CharSequence text) {
+			tokens.add(text.toString());
+		}
+	}
+
+	private static List<String> tokenize(final String markup) throws ParseException {
+		final RecordingHandler handler = new RecordingHandler();
+		new MarkupTokenizer(markup, handler).tokenize();
+		return handler.tokens;
+	}
+
+	private static void assertError(final String markup, final int offset) {
+		try {
+			tokenize(markup);
+			fail("ParseException expected: " + markup);
+		} catch (final ParseException e) {
+			assertEquals(markup, offset, e.getErrorOffset());
+		}
+	}
+
+	@Test
+	public void testText() throws Exception {
+		assertTrue(tokenize("").isEmpty());
+		assertEquals("[plain text]", tokenize("plain text").toString());
+		assertEquals("[a\nb\nc\n]", tokenize("a\r\nb\rc\n").toString());
+	}
+
+	@Test
+	public void testTags() throws Exception {
+		assertEquals("[a, <b>, bold, </b>, c]", tokenize("a<b>bold</b>c").toString());
+		assertEquals("[<i>, <u>, x, </u>, </i>]", tokenize("<i><u>x</u></i>").toString());
+		assertEquals("[a, <br>, </br>, b]", tokenize("a<br/>b").toString());
+		assertEquals("[<br>, </br>]", tokenize("<br />").toString());
+		assertEquals("[<b>, x, </b>]", tokenize("<b>x</b  >").toString());
+	}
+
+	@Test
+	public void testAttributes() throws Exception {
+		assertEquals("[<style {fg=#f00, bg=#0f0}>, x, </style>]", tokenize("<style fg='#f00' bg=\"#0f0\">x</style>").toString());
+		assertEquals("[<a {href=a&b}>, x, </a>]", tokenize("<a href = 'a&amp;b'>x</a>").toString());
+		assertEquals("[<a {href=a b}>, </a>]", tokenize("<a href='a\r\nb'/>").toString());
+	}
+
+	@Test
+	public void testReferences() throws Exception {
+		assertEquals("[<>&\"']", tokenize("&lt;&gt;&amp;&quot;&apos;").toString());
+		assertEquals("[AB\u20AC]", tokenize("&#65;&#x42;&#x20AC;").toString());
+		assertEquals("[a<b>c]", tokenize("a<![CDATA[<b>]]>c").toString());
+		assertEquals("[ac]", tokenize("a<!-- <b> -->c").toString());
+	}
+
+	@Test
+	public void testErrors() {
+		assertError("<b>x", 4);
+		assertError("<b>x</i>", 4);
+		assertError("x</b>", 1);
+		assertError("a < b", 3);
+		assertError("a & b", 2);
+		assertError("&unknown;", 0);
+		assertError("&#xZZ;", 0);
+		assertError("&#xD800;", 0);
+		assertError("&#57343;", 0);
+		assertError("&#x00000000000000000000000000000041;", 0);
+		assertError("<style fg=#f00>x</style>", 10);
+		assertError("<style fg='a' fg='b'/>", 14);
+		assertError("<b", 2);
+		assertError("<!-- x", 0);
+	}
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.swt.custom.StyleRange;
+import org.junit.Test;
+
+public class TestStyleRangeCompactor {
+
+	private static StyleRange range(final int start, final int length, final boolean underline) {
+		final StyleRange range = new StyleRange();
+		range.start = start;
+		range.length = length;
+		range.underline = underline;
+		range.strikeout = !underline;
+		return range;
+	}
+
+	private static Anchor anchor(final int start, final int length, final String href) {
+		final Anchor anchor = new Anchor(href);
+		anchor.start = start;
+		anchor.length = length;
+		return anchor;
+	}
+
+	@Test
+	public void testNothingToCompact() {
+		final StyleRange[] ranges = { range(0, 2, true), range(2, 3, false), range(6, 1, false) };
+		assertSame(ranges, StyleRangeCompactor.compact(ranges));
+	}
+
+	@Test
+	public void testMergeAdjacentEqualRanges() {
+		final StyleRange[] ranges = { range(0, 2, true), range(2, 3, true), range(5, 1, true), range(6, 1, false) };
+		final StyleRange[] compacted = StyleRangeCompactor.compact(ranges);
+
+		assertEquals(2, compacted.length);
+		assertEquals(0, compacted[0].start);
+		assertEquals(6, compacted[0].length);
+		assertSame(ranges[3], compacted[1]);
+		assertEquals("source range modified", 2, ranges[0].length);
+	}
+
+	@Test
+	public void testDropEmptyRanges() {
+		final StyleRange[] ranges = { range(0, 2, true), range(2, 0, false), range(2, 1, true) };
+		final StyleRange[] compacted = StyleRangeCompactor.compact(ranges);
+
+		assertEquals(1, compacted.length);
+		assertEquals(3, compacted[0].length);
+	}
+
+	@Test
+	public void testDropUnstyledRanges() {
+		final StyleRange[] ranges = { range(0, 2, true), new StyleRange(2, 1, null, null), anchor(3, 1, "a") };
+		final StyleRange[] compacted = StyleRangeCompactor.compact(ranges);
+
+		assertEquals(2, compacted.length);
+		assertSame(ranges[0], compacted[0]);
+		assertSame(ranges[2], compacted[1]);
+	}
+
+	@Test
+	public void testAnchors() {
+		final StyleRange[] ranges = { anchor(0, 2, "a"), anchor(2, 2, "a"), anchor(4, 2, "b"), range(6, 2, false) };
+		final StyleRange[] compacted = StyleRangeCompactor.compact(ranges);
+
+		assertEquals(3, compacted.length);
+		assertTrue(compacted[0] instanceof Anchor);
+		assertEquals("a", ((Anchor) compacted[0]).href);
+		assertEquals(4, compacted[0].length);
+		assertEquals("b", ((Anchor) compacted[1]).href);
+	}
+}
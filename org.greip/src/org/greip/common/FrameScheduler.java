@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.common;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Scrollable;
+
+/**
+ * Coalesces redraw requests of the Greip controls. Dirty controls and damaged
+ * rectangles are collected and redrawn together when the next frame is due,
+ * so a burst of changes results in one redraw per control and frame. Frames
+ * are triggered by a single {@link Display#timerExec(int, Runnable)} and are
+ * limited to the configured frame rate.
+ * <p>
+ * There is one scheduler per display, which must be accessed from the user
+ * interface thread only.
+ * </p>
+ *
+ * @author Thomas Lorbeer
+ */
+public final class FrameScheduler {
+
+	/** The default maximum count of frames per second. */
+	public static final int DEFAULT_FRAME_RATE = 60;
+
+	private static final String DATA_KEY = FrameScheduler.class.getName();
+
+	private final Display display;
+	private final Map<Control, Rectangle> damage = new LinkedHashMap<>();
+	private final List<Runnable> tasks = new ArrayList<>();
+	private int frameRate = DEFAULT_FRAME_RATE;
+	private long lastFrame;
+	private boolean scheduled;
+
+	private FrameScheduler(final Display display) {
+		this.display = display;
+	}
+
+	/**
+	 * Returns the scheduler of the specified display.
+	 *
+	 * @param display
+	 *        the display
+	 *
+	 * @return the scheduler
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the display is null</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the display</li>
+	 *            </ul>
+	 */
+	public static FrameScheduler getInstance(final Display display) {
+		if (display == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		FrameScheduler scheduler = (FrameScheduler) display.getData(DATA_KEY);
+
+		if (scheduler == null) {
+			final FrameScheduler newScheduler = new FrameScheduler(display);
+			display.setData(DATA_KEY, newScheduler);
+			display.disposeExec(newScheduler::clear);
+			scheduler = newScheduler;
+		}
+
+		return scheduler;
+	}
+
+	/**
+	 * Returns the maximum count of frames per second.
+	 *
+	 * @return the frame rate
+	 */
+	public int getFrameRate() {
+		return frameRate;
+	}
+
+	/**
+	 * Sets the maximum count of frames per second. The default is
+	 * {@value #DEFAULT_FRAME_RATE}.
+	 *
+	 * @param frameRate
+	 *        the frame rate
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the frame rate is less than
+	 *            1</li>
+	 *            </ul>
+	 */
+	public void setFrameRate(final int frameRate) {
+		if (frameRate < 1) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.frameRate = frameRate;
+	}
+
+	/**
+	 * Returns the time between two frames.
+	 *
+	 * @return the frame interval in milliseconds
+	 */
+	public int getFrameInterval() {
+		return 1000 / frameRate;
+	}
+
+	/**
+	 * Marks the whole control as dirty. The control is redrawn with the next
+	 * frame.
+	 *
+	 * @param control
+	 *        the control to redraw
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the control is null</li>
+	 *            </ul>
+	 */
+	public void redraw(final Control control) {
+		if (control == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		damage.put(control, null);
+		schedule();
+	}
+
+	/**
+	 * Marks a rectangle of the control as damaged. All damaged rectangles of a
+	 * control are combined and redrawn with the next frame.
+	 *
+	 * @param control
+	 *        the control to redraw
+	 * @param x
+	 *        the x coordinate of the area to redraw
+	 * @param y
+	 *        the y coordinate of the area to redraw
+	 * @param width
+	 *        the width of the area to redraw
+	 * @param height
+	 *        the height of the area to redraw
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the control is null</li>
+	 *            </ul>
+	 */
+	public void redraw(final Control control, final int x, final int y, final int width, final int height) {
+		if (control == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		final Rectangle area = new Rectangle(x, y, width, height);
+
+		if (!damage.containsKey(control)) {
+			damage.put(control, area);
+		} else {
+			final Rectangle damagedArea = damage.get(control);
+			if (damagedArea != null) damagedArea.add(area);
+		}
+
+		schedule();
+	}
+
+	/**
+	 * Runs the task with the next frame, before the dirty controls are redrawn.
+	 * A task which is added while the tasks of a frame are running is run with
+	 * the following frame.
+	 *
+	 * @param task
+	 *        the task
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the task is null</li>
+	 *            </ul>
+	 */
+	public void exec(final Runnable task) {
+		if (task == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		tasks.add(task);
+		schedule();
+	}
+
+	private void schedule() {
+		if (!scheduled && !display.isDisposed()) {
+			final long elapsed = (System.nanoTime() - lastFrame) / 1_000_000L;
+
+			scheduled = true;
+			display.timerExec((int) Math.max(0L, Math.min(getFrameInterval(), getFrameInterval() - elapsed)), this::flush);
+		}
+	}
+
+	// a failing task doesn't prevent the other tasks and the redraws of the
+	// frame, its exception is rethrown at the end of the frame
+	private void flush() {
+		scheduled = false;
+		lastFrame = System.nanoTime();
+
+		final List<Runnable> frameTasks = new ArrayList<>(tasks);
+		tasks.clear();
+
+		RuntimeException failure = null;
+		for (final Runnable task : frameTasks) {
+			try {
+				task.run();
+			} catch (final RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+
+		final Map<Control, Rectangle> frameDamage = new LinkedHashMap<>(damage);
+		damage.clear();
+
+		for (final Entry<Control, Rectangle> entry : frameDamage.entrySet()) {
+			final Control control = entry.getKey();
+
+			if (!control.isDisposed()) {
+				final Rectangle area = entry.getValue() == null ? getClientArea(control) : entry.getValue();
+				control.redraw(area.x, area.y, area.width, area.height, false);
+			}
+		}
+
+		if (failure != null) throw failure;
+	}
+
+	private static Rectangle getClientArea(final Control control) {
+		if (control instanceof Scrollable) {
+			return ((Scrollable) control).getClientArea();
+		}
+
+		final Point size = control.getSize();
+		return new Rectangle(0, 0, size.x, size.y);
+	}
+
+	private void clear() {
+		damage.clear();
+		tasks.clear();
+	}
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.common;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Collects updates posted by arbitrary threads and applies them in one pass on
+ * the user interface thread with the next frame of the {@link FrameScheduler}.
+ * Only the latest update per target and property is kept, so a burst of values
+ * results in one update instead of flooding the event queue.
+ * <p>
+ * There is one instance per display. The instance must be obtained on the user
+ * interface thread, {@link #post(Object, Object, Runnable)} may be called from
+ * any thread.
+ * </p>
+ *
+ * @author Thomas Lorbeer
+ */
+public final class PendingUpdates {
+
+	private static final String DATA_KEY = PendingUpdates.class.getName();
+
+	private static final class Key {
+
+		private final Object target;
+		private final Object property;
+
+		Key(final Object target, final Object property) {
+			this.target = target;
+			this.property = property;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(target) * 31 + Objects.hashCode(property);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Key)) return false;
+
+			final Key other = (Key) obj;
+			return target == other.target && Objects.equals(property, other.property);
+		}
+	}
+
+	private final Display display;
+	private final FrameScheduler frameScheduler;
+	private final Map<Key, Runnable> updates = new LinkedHashMap<>();
+
+	private PendingUpdates(final Display display) {
+		this.display = display;
+		this.frameScheduler = FrameScheduler.getInstance(display);
+	}
+
+	/**
+	 * Returns the instance of the specified display.
+	 *
+	 * @param display
+	 *        the display
+	 *
+	 * @return the instance
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the display is null</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the display</li>
+	 *            </ul>
+	 */
+	public static PendingUpdates getInstance(final Display display) {
+		if (display == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		PendingUpdates instance = (PendingUpdates) display.getData(DATA_KEY);
+
+		if (instance == null) {
+			final PendingUpdates newInstance = new PendingUpdates(display);
+			display.setData(DATA_KEY, newInstance);
+			display.disposeExec(newInstance::clear);
+			instance = newInstance;
+		}
+
+		return instance;
+	}
+
+	/**
+	 * Posts an update of a property of the target. A pending update of the same
+	 * target and property is replaced. The update is run on the user interface
+	 * thread and has to check itself whether the target is still alive. Updates
+	 * posted after the display has been disposed are ignored.
+	 *
+	 * @param target
+	 *        the object to update, compared by identity
+	 * @param property
+	 *        the property to update or <code>null</code>
+	 * @param update
+	 *        the code which applies the update
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the target or update is null</li>
+	 *            </ul>
+	 */
+	public void post(final Object target, final Object property, final Runnable update) {
+		if (target == null || update == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		final boolean schedule;
+		synchronized (updates) {
+			schedule = updates.isEmpty();
+			updates.put(new Key(target, property), update);
+		}
+
+		if (schedule) {
+			try {
+				display.asyncExec(() -> frameScheduler.exec(this::flush));
+			} catch (final SWTException e) {
+				if (e.code != SWT.ERROR_DEVICE_DISPOSED) throw e;
+				clear();
+			}
+		}
+	}
+
+	// a failing update doesn't prevent the other updates, its exception is
+	// rethrown when all updates have been applied
+	private void flush() {
+		final List<Runnable> toRun;
+		synchronized (updates) {
+			toRun = new ArrayList<>(updates.values());
+			updates.clear();
+		}
+
+		RuntimeException failure = null;
+		for (final Runnable update : toRun) {
+			try {
+				update.run();
+			} catch (final RuntimeException e) {
+				if (failure == null) {
+					failure = e;
+				} else {
+					failure.addSuppressed(e);
+				}
+			}
+		}
+
+		if (failure != null) throw failure;
+	}
+
+	private void clear() {
+		synchronized (updates) {
+			updates.clear();
+		}
+	}
+}
@@ -21,6 +21,7 @@ import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageDataProvider;
 import org.eclipse.swt.graphics.PaletteData;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.RGB;
@@ -48,6 +49,83 @@ public final class Util {
 		});
 	}
 
+	// paints on black and on white and derives the alpha channel from the
+	// difference, so antialiased edges blend with any background. The painter
+	// is called for every zoom at which the image is requested.
+	public static Image createTransparentImage(final Device device, final Point size, final Consumer<GC> painter) {
+		return new Image(device, (ImageDataProvider) zoom -> createTransparentImageData(device, size, zoom, painter));
+	}
+
+	private static ImageData createTransparentImageData(final Device device, final Point size, final int zoom, final Consumer<GC> painter) {
+		final ImageData onBlack = paintImageData(device, size, zoom, SWT.COLOR_BLACK, painter);
+		final ImageData onWhite = paintImageData(device, size, zoom, SWT.COLOR_WHITE, painter);
+		final int width = onBlack.width;
+		final ImageData data = new ImageData(width, onBlack.height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		final int[] blackPixels = new int[width];
+		final int[] whitePixels = new int[width];
+		final byte[] alphas = new byte[width];
+
+		for (int y = 0; y < data.height; y++) {
+			onBlack.getPixels(0, y, width, blackPixels, 0);
+			onWhite.getPixels(0, y, width, whitePixels, 0);
+
+			for (int x = 0; x < width; x++) {
+				final int black = toRGB(onBlack.palette, blackPixels[x]);
+				final int white = toRGB(onWhite.palette, whitePixels[x]);
+				final int difference = (sumOfChannels(white) - sumOfChannels(black)) / 3;
+				final int alpha = Math.max(0, Math.min(255, 255 - difference));
+
+				blackPixels[x] = alpha == 0 ? 0 : unpremultiply(black, alpha);
+				alphas[x] = (byte) alpha;
+			}
+			data.setPixels(0, y, width, blackPixels, 0);
+			data.setAlphas(0, y, width, alphas, 0);
+		}
+
+		return data;
+	}
+
+	private static ImageData paintImageData(final Device device, final Point size, final int zoom, final int background,
+			final Consumer<GC> painter) {
+		return withResource(new Image(device, size.x, size.y), img -> {
+			withResource(new GC(img), gc -> {
+				gc.setBackground(device.getSystemColor(background));
+				gc.fillRectangle(0, 0, size.x, size.y);
+				painter.accept(gc);
+			});
+			return img.getImageData(zoom);
+		});
+	}
+
+	private static int toRGB(final PaletteData palette, final int pixel) {
+		if (!palette.isDirect) {
+			final RGB rgb = palette.colors[pixel];
+			return rgb.red << 16 | rgb.green << 8 | rgb.blue;
+		}
+
+		final int red = shift(pixel & palette.redMask, palette.redShift);
+		final int green = shift(pixel & palette.greenMask, palette.greenShift);
+		final int blue = shift(pixel & palette.blueMask, palette.blueShift);
+
+		return red << 16 | green << 8 | blue;
+	}
+
+	private static int shift(final int value, final int shift) {
+		return shift < 0 ? value >>> -shift : value << shift;
+	}
+
+	private static int sumOfChannels(final int rgb) {
+		return (rgb >> 16 & 0xFF) + (rgb >> 8 & 0xFF) + (rgb & 0xFF);
+	}
+
+	private static int unpremultiply(final int rgb, final int alpha) {
+		final int red = Math.min(255, (rgb >> 16 & 0xFF) * 255 / alpha);
+		final int green = Math.min(255, (rgb >> 8 & 0xFF) * 255 / alpha);
+		final int blue = Math.min(255, (rgb & 0xFF) * 255 / alpha);
+
+		return red << 16 | green << 8 | blue;
+	}
+
 	public static RGB getDimmedRGB(final RGB rgb, final float brightnessOffset) {
 		final float[] hsb = rgb.getHSB();
 		return new RGB(hsb[0], hsb[1], Math.max(0, Math.min(1.0f, hsb[2] + brightnessOffset)));
@@ -1,39 +1,112 @@
 package org.greip.decorator;
 
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Control;
+import org.greip.common.Util;
 
 abstract class AbstractAnimatedDecorator extends AbstractDecorator {
 
 	protected static class AnimationContext {
 
+		protected static int DEFAULT_DURATION = 200;
+
+		/**
+		 * @deprecated animations are time based, see {@link #getDuration()}
+		 */
+		@Deprecated
 		protected static int DEFAULT_STEP_COUNT = 20;
+
+		/**
+		 * @deprecated animations are time based, see {@link #getDuration()}
+		 */
+		@Deprecated
 		protected static int DEFAULT_DELAY = 10;
 
-		private int step = -1;
+		private int duration = DEFAULT_DURATION;
+		private IEasing easing = IEasing.EASE_OUT;
+		private long startTime;
+		private boolean active;
+
+		public int getDuration() {
+			return duration;
+		}
+
+		public void setDuration(final int duration) {
+			this.duration = duration;
+		}
+
+		public IEasing getEasing() {
+			return easing;
+		}
+
+		public void setEasing(final IEasing easing) {
+			this.easing = easing;
+		}
+
+		public void init() {
+			startTime = System.nanoTime();
+			active = duration > 0;
+		}
+
+		/**
+		 * Returns the eased progress of the animation, computed from the time
+		 * elapsed since {@link #init()}. Frames which could not be painted in
+		 * time are skipped this way.
+		 *
+		 * @return the progress between 0 and 1
+		 */
+		public double getProgress() {
+			return isActive() ? easing.apply(getElapsedFraction()) : 1;
+		}
 
+		/**
+		 * Returns the delay between two steps of the former step based
+		 * animation.
+		 *
+		 * @return the delay in milliseconds
+		 *
+		 * @deprecated animations are driven by the frames of the
+		 *             {@link org.greip.common.FrameScheduler}
+		 */
+		@Deprecated
 		public int getDelay() {
 			return DEFAULT_DELAY;
 		}
 
+		/**
+		 * Returns the count of steps of the former step based animation.
+		 *
+		 * @return the step count
+		 *
+		 * @deprecated use {@link #getProgress()}
+		 */
+		@Deprecated
 		public int getStepCount() {
 			return DEFAULT_STEP_COUNT;
 		}
 
-		public void init() {
-			step = 0;
-		}
-
+		/**
+		 * Returns the step which corresponds to the elapsed time, or the step
+		 * count if the animation is not active.
+		 *
+		 * @return the step
+		 *
+		 * @deprecated use {@link #getProgress()}
+		 */
+		@Deprecated
 		public int getStep() {
-			return step == -1 ? getStepCount() : step;
+			return isActive() ? Math.min(getStepCount() - 1, (int) (getElapsedFraction() * getStepCount())) : getStepCount();
 		}
 
-		private int next() {
-			if (!isActive()) throw new IllegalStateException();
-			return ++step;
+		public boolean isActive() {
+			if (active && getElapsedFraction() >= 1) {
+				active = false;
+			}
+			return active;
 		}
 
-		public boolean isActive() {
-			return getStep() < getStepCount();
+		private double getElapsedFraction() {
+			return (System.nanoTime() - startTime) / (duration * 1_000_000d);
 		}
 	}
 
@@ -45,21 +118,31 @@ abstract class AbstractAnimatedDecorator extends AbstractDecorator {
 
 	abstract protected AnimationContext getAnimationContext();
 
+	/**
+	 * Starts the animation. A running animation is not restarted, it continues
+	 * towards the new state.
+	 */
 	protected void startAnimation() {
 		final AnimationContext ctx = getAnimationContext();
-		if (ctx != null && animationEnabled) ctx.init();
-		redrawAsync();
+
+		if (ctx != null && animationEnabled) {
+			if (!ctx.isActive()) ctx.init();
+			AnimationClock.getInstance(getDisplay()).start(this);
+		}
+
+		redraw();
 	}
 
-	private void redrawAsync() {
+	boolean animate() {
 		final AnimationContext ctx = getAnimationContext();
 
-		if (ctx != null && ctx.isActive()) {
-			ctx.next();
-			getDisplay().timerExec(ctx.getDelay(), this::redrawAsync);
+		if (ctx == null || getParent().isDisposed()) {
+			return false;
 		}
 
 		redraw();
+
+		return ctx.isActive();
 	}
 
 	public void setAnimationEnabled(final boolean enabled) {
@@ -69,4 +152,38 @@ abstract class AbstractAnimatedDecorator extends AbstractDecorator {
 	public boolean isAnimationEnabled() {
 		return animationEnabled;
 	}
+
+	/**
+	 * Sets the duration of the animation.
+	 *
+	 * @param duration
+	 *        the duration in milliseconds, zero disables the animation
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the duration is less than
+	 *            zero</li>
+	 *            </ul>
+	 */
+	public void setAnimationDuration(final int duration) {
+		if (duration < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		Util.whenNotNull(getAnimationContext(), ctx -> ctx.setDuration(duration));
+	}
+
+	/**
+	 * Sets the easing function of the animation. The default is
+	 * {@link IEasing#EASE_OUT}.
+	 *
+	 * @param easing
+	 *        the easing function
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the easing is null</li>
+	 *            </ul>
+	 */
+	public void setEasing(final IEasing easing) {
+		if (easing == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		Util.whenNotNull(getAnimationContext(), ctx -> ctx.setEasing(easing));
+	}
 }
@@ -12,6 +12,7 @@ package org.greip.decorator;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
+import org.greip.common.FrameScheduler;
 import org.greip.common.Util;
 
 /**
@@ -24,6 +25,7 @@ import org.greip.common.Util;
 public abstract class AbstractDecorator implements IDecorator {
 
 	private final Control parent;
+	private Runnable redrawHandler;
 
 	/**
 	 * Constructs a new instance.
@@ -68,9 +70,30 @@ public abstract class AbstractDecorator implements IDecorator {
 	}
 
 	/**
-	 * Paint the decorator by force a redraw on parent control.
+	 * Defines how the decorator is redrawn. Controls which paint several
+	 * decorators, like {@link org.greip.tile.TileGrid}, use it to redraw only
+	 * the area of the decorator instead of the whole parent control.
+	 *
+	 * @param redrawHandler
+	 *        the code which redraws the decorator or <code>null</code> to
+	 *        redraw the parent control
+	 */
+	public void setRedrawHandler(final Runnable redrawHandler) {
+		this.redrawHandler = redrawHandler;
+	}
+
+	/**
+	 * Paint the decorator by force a redraw on parent control or by the redraw
+	 * handler. The redraw is deferred to the next frame of the
+	 * {@link FrameScheduler}.
+	 *
+	 * @see #setRedrawHandler(Runnable)
 	 */
 	protected void redraw() {
-		parent.redraw();
+		if (redrawHandler == null) {
+			FrameScheduler.getInstance(getDisplay()).redraw(parent);
+		} else {
+			redrawHandler.run();
+		}
 	}
 }
@@ -10,6 +10,7 @@ package org.greip.decorator;
 
 import java.text.Format;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
@@ -23,11 +24,28 @@ import org.eclipse.swt.graphics.FontMetrics;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Control;
+import org.greip.common.PendingUpdates;
 import org.greip.common.Util;
 
 public abstract class AbstractValueDecorator<T extends Comparable<T>> extends AbstractAnimatedDecorator {
 
 	private static final int TEXT_SPACING = 2;
+	private static final int METRICS_CACHE_SIZE = 16;
+
+	private static final class TextMetrics {
+
+		private final Point valueSize;
+		private final int valueBaseline;
+		private final Point unitSize;
+		private final int unitBaseline;
+
+		TextMetrics(final Point valueSize, final int valueBaseline, final Point unitSize, final int unitBaseline) {
+			this.valueSize = valueSize;
+			this.valueBaseline = valueBaseline;
+			this.unitSize = unitSize;
+			this.unitBaseline = unitBaseline;
+		}
+	}
 
 	private T value;
 	private Format format;
@@ -37,9 +55,29 @@ public abstract class AbstractValueDecorator<T extends Comparable<T>> extends Ab
 	private String unit;
 	private int unitAlignment = SWT.RIGHT;
 	private Font unitFont;
+	private Font derivedUnitFont;
+
+	// extents of the recently painted value strings, measured with metricsFont
+	private Font metricsFont;
+	private final Map<String, TextMetrics> metricsCache = new LinkedHashMap<String, TextMetrics>(METRICS_CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<String, TextMetrics> eldest) {
+			return size() > METRICS_CACHE_SIZE;
+		}
+	};
+	private final PendingUpdates pendingUpdates;
 
 	protected AbstractValueDecorator(final Control parent) {
 		super(parent);
+		pendingUpdates = PendingUpdates.getInstance(parent.getDisplay());
+	}
+
+	@Override
+	protected void dispose() {
+		super.dispose();
+		invalidateMetrics();
 	}
 
 	/**
@@ -62,6 +100,22 @@ public abstract class AbstractValueDecorator<T extends Comparable<T>> extends Ab
 		startAnimation();
 	}
 
+	/**
+	 * Posts a new value. This method may be called from any thread. The value is
+	 * set on the user interface thread, only the latest of several values
+	 * posted in a short time is set.
+	 *
+	 * @param value
+	 *        the value
+	 *
+	 * @see PendingUpdates
+	 */
+	public void postValue(final T value) {
+		pendingUpdates.post(this, null, () -> {
+			if (!getParent().isDisposed()) setValue(value);
+		});
+	}
+
 	protected T getValueToDisplay() {
 		return value;
 	}
@@ -85,6 +139,7 @@ public abstract class AbstractValueDecorator<T extends Comparable<T>> extends Ab
 	public void setFormat(final Format format) {
 		if (format == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 		this.format = format;
+		metricsCache.clear();
 	}
 
 	/**
@@ -109,6 +164,7 @@ public abstract class AbstractValueDecorator<T extends Comparable<T>> extends Ab
 	 */
 	public void setFont(final Font font) {
 		this.font = Util.checkResource(font, true);
+		invalidateMetrics();
 		redraw();
 	}
 
@@ -192,6 +248,7 @@ public abstract class AbstractValueDecorator<T extends Comparable<T>> extends Ab
 	 */
 	public void setUnit(final String unit) {
 		this.unit = unit;
+		metricsCache.clear();
 		redraw();
 	}
 
@@ -237,50 +294,79 @@ public abstract class AbstractValueDecorator<T extends Comparable<T>> extends Ab
 	 */
 	public void setUnitFont(final Font unitFont) {
 		this.unitFont = Util.checkResource(unitFont, true);
+		metricsCache.clear();
 		redraw();
 	}
 
 	protected Point getValueSize() {
-		return Util.withResource(new GC(getDisplay()), gc -> {
-			Util.whenNotNull(getFont(), gc::setFont);
-			final Point size = gc.textExtent(getValueAsString());
-
-			if (unit != null && !unit.isEmpty()) {
-				final Point unitSize = Util.withFont(gc, createUnitFont(), font -> {
-					gc.setFont(font);
-					return gc.textExtent(unit);
-				});
-
-				if (Util.whenAnySet(unitAlignment, SWT.LEFT, SWT.RIGHT)) {
-					size.x += unitSize.x + TEXT_SPACING;
-				} else {
-					size.y += unitSize.y;
-				}
+		final TextMetrics metrics = getTextMetrics(getValueAsString());
+		final Point size = new Point(metrics.valueSize.x, metrics.valueSize.y);
+
+		if (unit != null && !unit.isEmpty()) {
+			if (Util.whenAnySet(unitAlignment, SWT.LEFT, SWT.RIGHT)) {
+				size.x += metrics.unitSize.x + TEXT_SPACING;
+			} else {
+				size.y += metrics.unitSize.y;
 			}
-			return size;
-		});
+		}
+		return size;
 	}
 
-	private Font createUnitFont() {
-		final FontData[] fontData;
+	private TextMetrics getTextMetrics(final String valueString) {
+		final Font font = getFont();
 
+		// getFont() may return a new wrapper of the same native font on each call
+		if (!Objects.equals(font, metricsFont)) {
+			invalidateMetrics();
+			metricsFont = font;
+		}
+
+		return metricsCache.computeIfAbsent(valueString, s -> Util.withResource(new GC(getDisplay()), gc -> {
+			final int valueBaseline = getBaseline(applyFont(gc, font));
+			final Point valueSize = gc.textExtent(s);
+
+			if (unit == null || unit.isEmpty()) {
+				return new TextMetrics(valueSize, valueBaseline, new Point(0, 0), 0);
+			}
+
+			final int unitBaseline = getBaseline(applyFont(gc, getUnitFontToUse()));
+			return new TextMetrics(valueSize, valueBaseline, gc.textExtent(unit), unitBaseline);
+		}));
+	}
+
+	private void invalidateMetrics() {
+		metricsCache.clear();
+		metricsFont = null;
+
+		if (derivedUnitFont != null) {
+			derivedUnitFont.dispose();
+			derivedUnitFont = null;
+		}
+	}
+
+	private Font getUnitFontToUse() {
 		if (getUnitFont() != null) {
-			fontData = getUnitFont().getFontData();
-		} else {
-			fontData = getFont().getFontData();
+			return getUnitFont();
+		}
+
+		if (derivedUnitFont == null) {
+			final FontData[] fontData = getFont().getFontData();
 			fontData[0].setHeight(Math.min(10, Math.max(2, (int) (fontData[0].getHeight() * 0.5))));
 			fontData[0].setStyle(SWT.NONE);
+
+			derivedUnitFont = new Font(getDisplay(), fontData[0]);
 		}
 
-		return new Font(getDisplay(), fontData[0]);
+		return derivedUnitFont;
 	}
 
 	protected void paintValue(final GC gc, final int x, final int y) {
+		final String valueString = getValueAsString();
+		final TextMetrics metrics = getTextMetrics(valueString);
 		final Point textSize = getValueSize();
+		final Point valueSize = metrics.valueSize;
 
-		final FontMetrics valueMetrics = applyFont(gc, getFont());
-		final Point valueSize = gc.textExtent(getValueAsString());
-
+		applyFont(gc, getFont());
 		gc.setForeground(Util.nvl(valueColor, getTreshholdColor(getParent().getForeground())));
 
 		final Point textPos = new Point(x, y);
@@ -291,40 +377,40 @@ public abstract class AbstractValueDecorator<T extends Comparable<T>> extends Ab
 			textPos.y += textSize.y - valueSize.y;
 		}
 
-		gc.drawText(getValueAsString(), textPos.x, textPos.y, true);
+		gc.drawText(valueString, textPos.x, textPos.y, true);
 
 		if (unit != null && !unit.isEmpty()) {
-			Util.withResource(createUnitFont(), font -> {
-				final FontMetrics unitMetrics = applyFont(gc, font);
-				final Point unitSize = gc.textExtent(unit);
-				final Point unitPos = new Point(x, y);
+			gc.setFont(getUnitFontToUse());
 
-				if (unitAlignment == SWT.BOTTOM) {
-					unitPos.y += valueSize.y;
-				}
+			final Point unitSize = metrics.unitSize;
+			final Point unitPos = new Point(x, y);
 
-				if (Util.whenAnySet(unitAlignment, SWT.LEFT, SWT.RIGHT)) {
-					final int valueBaseline = valueMetrics.getAscent() + valueMetrics.getLeading();
-					final int unitBaseline = unitMetrics.getAscent() + unitMetrics.getLeading();
-
-					if (Util.whenAnySet(unitAlignment, SWT.TOP)) {
-						unitPos.y += textSize.y - unitSize.y - (valueBaseline - unitBaseline);
-					} else {
-						unitPos.y += valueBaseline - unitBaseline;
-					}
-				} else if (Util.whenAnySet(unitAlignment, SWT.BOTTOM, SWT.TOP)) {
-					unitPos.x += (textSize.x - unitSize.x) / 2;
-				}
+			if (unitAlignment == SWT.BOTTOM) {
+				unitPos.y += valueSize.y;
+			}
 
-				if (Util.whenAnySet(unitAlignment, SWT.RIGHT)) {
-					unitPos.x += textSize.x - unitSize.x;
+			if (Util.whenAnySet(unitAlignment, SWT.LEFT, SWT.RIGHT)) {
+				if (Util.whenAnySet(unitAlignment, SWT.TOP)) {
+					unitPos.y += textSize.y - unitSize.y - (metrics.valueBaseline - metrics.unitBaseline);
+				} else {
+					unitPos.y += metrics.valueBaseline - metrics.unitBaseline;
 				}
+			} else if (Util.whenAnySet(unitAlignment, SWT.BOTTOM, SWT.TOP)) {
+				unitPos.x += (textSize.x - unitSize.x) / 2;
+			}
+
+			if (Util.whenAnySet(unitAlignment, SWT.RIGHT)) {
+				unitPos.x += textSize.x - unitSize.x;
+			}
 
-				gc.drawText(unit, unitPos.x, unitPos.y, true);
-			});
+			gc.drawText(unit, unitPos.x, unitPos.y, true);
 		}
 	}
 
+	private static int getBaseline(final FontMetrics metrics) {
+		return metrics.getAscent() + metrics.getLeading();
+	}
+
 	private static FontMetrics applyFont(final GC gc, final Font font) {
 		Util.whenNotNull(font, gc::setFont);
 		return gc.getFontMetrics();
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.decorator;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.swt.widgets.Display;
+import org.greip.common.FrameScheduler;
+
+/**
+ * Drives all running animations of a display. The clock ticks with the frames
+ * of the {@link FrameScheduler}; each tick redraws the parents of the active
+ * animations, which compute their progress from the elapsed time. The clock
+ * stops when no animation is running.
+ * <p>
+ * There is one clock per display, which must be accessed from the user
+ * interface thread only.
+ * </p>
+ *
+ * @author Thomas Lorbeer
+ */
+final class AnimationClock {
+
+	private static final String DATA_KEY = AnimationClock.class.getName();
+
+	private final Display display;
+	private final Set<AbstractAnimatedDecorator> decorators = new LinkedHashSet<>();
+	private boolean running;
+
+	private AnimationClock(final Display display) {
+		this.display = display;
+	}
+
+	/**
+	 * Returns the clock of the specified display.
+	 *
+	 * @param display
+	 *        the display
+	 *
+	 * @return the clock
+	 */
+	static AnimationClock getInstance(final Display display) {
+		AnimationClock clock = (AnimationClock) display.getData(DATA_KEY);
+
+		if (clock == null) {
+			final AnimationClock newClock = new AnimationClock(display);
+			display.setData(DATA_KEY, newClock);
+			display.disposeExec(newClock.decorators::clear);
+			clock = newClock;
+		}
+
+		return clock;
+	}
+
+	/**
+	 * Adds the decorator to the running animations and starts the clock, if
+	 * necessary.
+	 *
+	 * @param decorator
+	 *        the decorator with an initialized animation context
+	 */
+	void start(final AbstractAnimatedDecorator decorator) {
+		decorators.add(decorator);
+
+		if (!running) {
+			running = true;
+			FrameScheduler.getInstance(display).exec(this::tick);
+		}
+	}
+
+	private void tick() {
+		final List<AbstractAnimatedDecorator> animated = new ArrayList<>(decorators);
+
+		for (final AbstractAnimatedDecorator decorator : animated) {
+			if (!decorator.animate()) {
+				decorators.remove(decorator);
+			}
+		}
+
+		if (decorators.isEmpty() || display.isDisposed()) {
+			running = false;
+		} else {
+			FrameScheduler.getInstance(display).exec(this::tick);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.decorator;
+
+/**
+ * An easing function maps the elapsed fraction of an animation's duration to
+ * the progress of the animation.
+ *
+ * @author Thomas Lorbeer
+ */
+@FunctionalInterface
+public interface IEasing {
+
+	/** Constant speed. */
+	IEasing LINEAR = t -> t;
+
+	/** Starts slow and accelerates. */
+	IEasing EASE_IN = t -> t * t * t;
+
+	/** Starts fast and decelerates. */
+	IEasing EASE_OUT = t -> 1 - Math.pow(1 - t, 3);
+
+	/** Accelerates until halfway, then decelerates. */
+	IEasing EASE_IN_OUT = t -> t < 0.5 ? 4 * t * t * t : 1 - Math.pow(-2 * t + 2, 3) / 2;
+
+	/**
+	 * Returns the progress of the animation.
+	 *
+	 * @param fraction
+	 *        the elapsed fraction of the duration between 0 and 1
+	 *
+	 * @return the progress, 0 at the start and 1 at the end
+	 */
+	double apply(double fraction);
+}
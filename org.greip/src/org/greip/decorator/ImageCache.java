@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.decorator;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.Point;
+
+/**
+ * Holds the decoded frames of the images loaded by {@link ImageDecorator}, so
+ * an image which is shown by several decorators is decoded and kept only once.
+ * Images are keyed by the absolute file name and the modification time or by a
+ * key provided by the caller. Images in use are never evicted, the least
+ * recently used of the others are evicted when the cache exceeds its budget.
+ * <p>
+ * The cache is shared by all displays and may be used by any thread.
+ * </p>
+ *
+ * @author Thomas Lorbeer
+ */
+public final class ImageCache {
+
+	/** The default budget of the cache in bytes. */
+	public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;
+
+	/**
+	 * The decoded frames of an image and the data of the logical screen which
+	 * is needed to composite animated images.
+	 */
+	static final class DecodedImage {
+
+		final Object key;
+		final ImageData[] frames;
+		final int logicalScreenWidth;
+		final int logicalScreenHeight;
+		final int backgroundPixel;
+		private final long bytes;
+		private int references;
+
+		DecodedImage(final Object key, final ImageLoader loader, final ImageData[] frames) {
+			this.key = key;
+			this.frames = frames;
+			this.logicalScreenWidth = loader.logicalScreenWidth;
+			this.logicalScreenHeight = loader.logicalScreenHeight;
+			this.backgroundPixel = loader.backgroundPixel;
+			this.bytes = Arrays.stream(frames).mapToLong(DecodedImage::getBytes).sum();
+		}
+
+		DecodedImage(final ImageData frame) {
+			this.key = null;
+			this.frames = new ImageData[] { frame };
+			this.logicalScreenWidth = frame.width;
+			this.logicalScreenHeight = frame.height;
+			this.backgroundPixel = -1;
+			this.bytes = getBytes(frame);
+		}
+
+		private static long getBytes(final ImageData frame) {
+			return (long) frame.data.length + (frame.alphaData == null ? 0 : frame.alphaData.length)
+					+ (frame.maskData == null ? 0 : frame.maskData.length);
+		}
+	}
+
+	private static final Map<Object, DecodedImage> images = new LinkedHashMap<>(16, 0.75f, true);
+	private static final Map<Object, CompletableFuture<DecodedImage>> decoding = new HashMap<>();
+	private static long budget = DEFAULT_BUDGET;
+	private static long size;
+
+	private ImageCache() {
+	}
+
+	/**
+	 * Returns the budget of the cache.
+	 *
+	 * @return the budget in bytes
+	 */
+	public static synchronized long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Sets the budget of the cache. Images which are in use are kept even if
+	 * they exceed the budget. The default is {@value #DEFAULT_BUDGET} bytes.
+	 *
+	 * @param budget
+	 *        the budget in bytes
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the budget is less than
+	 *            zero</li>
+	 *            </ul>
+	 */
+	public static synchronized void setBudget(final long budget) {
+		if (budget < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		ImageCache.budget = budget;
+		trim(budget);
+	}
+
+	/**
+	 * Returns the size of all cached images.
+	 *
+	 * @return the size in bytes
+	 */
+	public static synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * Removes all images which are not in use.
+	 */
+	public static synchronized void clear() {
+		trim(0);
+	}
+
+	/**
+	 * Returns the cached image of the key and increments its reference count.
+	 * If the key is not cached, the image is decoded outside of the lock of the
+	 * cache and added. If another thread is already decoding the same key, the
+	 * image of that thread is awaited instead of decoding it again.
+	 *
+	 * @param key
+	 *        the key of the image
+	 * @param load
+	 *        decodes the image with the specified loader
+	 *
+	 * @return the image, which must be released
+	 */
+	static DecodedImage acquire(final Object key, final Function<ImageLoader, ImageData[]> load) {
+		final CompletableFuture<DecodedImage> pending;
+
+		synchronized (ImageCache.class) {
+			final DecodedImage image = images.get(key);
+
+			if (image != null) {
+				image.references++;
+				return image;
+			}
+
+			pending = decoding.get(key);
+			if (pending == null) {
+				decoding.put(key, new CompletableFuture<>());
+			}
+		}
+
+		return pending == null ? decodeAndAdd(key, load) : await(key, load, pending);
+	}
+
+	private static DecodedImage decodeAndAdd(final Object key, final Function<ImageLoader, ImageData[]> load) {
+		final CompletableFuture<DecodedImage> future;
+		final DecodedImage decodedImage;
+
+		try {
+			decodedImage = decode(key, load);
+		} catch (final Throwable e) {
+			synchronized (ImageCache.class) {
+				future = decoding.remove(key);
+			}
+			future.completeExceptionally(e);
+			throw e;
+		}
+
+		synchronized (ImageCache.class) {
+			future = decoding.remove(key);
+			decodedImage.references = 1;
+			images.put(key, decodedImage);
+			size += decodedImage.bytes;
+			trim(budget);
+		}
+
+		future.complete(decodedImage);
+		return decodedImage;
+	}
+
+	// a cancelled decode of another thread is repeated, any other failure is
+	// thrown to every thread which awaits it
+	private static DecodedImage await(final Object key, final Function<ImageLoader, ImageData[]> load,
+			final CompletableFuture<DecodedImage> pending) {
+		final DecodedImage image;
+
+		try {
+			image = pending.join();
+		} catch (final RuntimeException e) {
+			if (pending.isCancelled()) {
+				return acquire(key, load);
+			}
+
+			final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+			if (cause instanceof Error) throw (Error) cause;
+			throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+		}
+
+		synchronized (ImageCache.class) {
+			image.references++;
+		}
+
+		return image;
+	}
+
+	/**
+	 * Decodes an image without caching it.
+	 *
+	 * @param load
+	 *        decodes the image with the specified loader
+	 *
+	 * @return the image
+	 */
+	static DecodedImage decode(final Function<ImageLoader, ImageData[]> load) {
+		return decode(null, load);
+	}
+
+	private static DecodedImage decode(final Object key, final Function<ImageLoader, ImageData[]> load) {
+		final ImageLoader loader = new ImageLoader();
+		return new DecodedImage(key, loader, load.apply(loader));
+	}
+
+	/**
+	 * Decrements the reference count of the image. Images which are not cached
+	 * are ignored.
+	 *
+	 * @param image
+	 *        the image or <code>null</code>
+	 */
+	static synchronized void release(final DecodedImage image) {
+		if (image != null && image.key != null && --image.references == 0) {
+			trim(budget);
+		}
+	}
+
+	/**
+	 * Returns the key of an image file, which changes when the file is
+	 * modified.
+	 *
+	 * @param filename
+	 *        the file name
+	 *
+	 * @return the key
+	 */
+	static Object getFileKey(final String filename) {
+		final File file = new File(filename);
+		return Arrays.asList(file.getAbsolutePath(), Long.valueOf(file.lastModified()));
+	}
+
+	/**
+	 * Returns the key of an image file which has been decoded for the
+	 * specified size.
+	 *
+	 * @param filename
+	 *        the file name
+	 * @param size
+	 *        the size the image has been decoded for
+	 *
+	 * @return the key
+	 */
+	static Object getFileKey(final String filename, final Point size) {
+		return Arrays.asList(getFileKey(filename), Integer.valueOf(size.x), Integer.valueOf(size.y));
+	}
+
+	private static void trim(final long maximumSize) {
+		for (final Iterator<DecodedImage> iterator = images.values().iterator(); iterator.hasNext() && size > maximumSize;) {
+			final DecodedImage image = iterator.next();
+
+			if (image.references == 0) {
+				iterator.remove();
+				size -= image.bytes;
+			}
+		}
+	}
+}
@@ -10,6 +10,13 @@
 package org.greip.decorator;
 
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -17,29 +24,70 @@ import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.ImageData;
-import org.eclipse.swt.graphics.ImageLoader;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.greip.common.Util;
 
 /**
  * Instances of this class represents a decorator that paints an image. Its
- * supports all image formats supported by {@link ImageLoader} plus animated
+ * supports all image formats supported by {@link org.eclipse.swt.graphics.ImageLoader ImageLoader} plus animated
  * GIFs.
+ * <p>
+ * Only the decoded frames of an animated image are kept. Each frame is
+ * composited from its predecessor when it is shown; the composited frames are
+ * cached as far as the memory budget allows.
+ * </p>
  *
  * @author Thomas Lorbeer
  */
 public final class ImageDecorator extends AbstractDecorator {
 
-	private final ImageLoader imageLoader = new ImageLoader();
+	/** The default memory budget for composited frames in bytes. */
+	public static final int DEFAULT_MEMORY_BUDGET = 16 * 1024 * 1024;
 
+	// decodes images for all decorators in the background
+	private static final ExecutorService LOADER = Executors.newFixedThreadPool(2, r -> {
+		final Thread thread = new Thread(r, "Greip image loader"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private ImageCache.DecodedImage decodedImage;
 	private ImageData[] images;
-	private ImageData[] scaledImages;
 	private int idx;
 	private boolean animated;
 	private Point scaleTo = new Point(SWT.DEFAULT, SWT.DEFAULT);
 	private Point imageSize = new Point(0, 0);
+	private RGB backgroundRGB;
+	private int memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+	// composited and scaled frames of size frameSize, the least recently painted
+	// frames are disposed when the memory budget is exceeded
+	private Point frameSize;
+	private final Map<Integer, Image> frames = new LinkedHashMap<Integer, Image>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Integer, Image> eldest) {
+			if (size() > 1 && size() * (long) frameSize.x * frameSize.y * 4 > memoryBudget) {
+				eldest.getValue().dispose();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	// the composition of the frames up to composedIdx
+	private Image canvas;
+	private Image previousCanvas;
+	private int composedIdx = -1;
+
+	// the pending asynchronous load, a superseded load is not applied
+	private Object loadToken;
+	private Future<?> pendingLoad;
+	private CompletableFuture<Void> pendingResult;
 
 	/**
 	 * Creates a new instance of the decorator.
@@ -66,10 +114,49 @@ public final class ImageDecorator extends AbstractDecorator {
 	@Override
 	public synchronized void doPaint(final GC gc, final int x, final int y) {
 		if (images != null) {
-			Util.withResource(new Image(getDisplay(), getScaledImage(idx)), (final Image img) -> gc.drawImage(img, x, y));
+			gc.drawImage(getFrame(idx), x, y);
 		}
 	}
 
+	@Override
+	protected synchronized void dispose() {
+		super.dispose();
+		cancelLoad();
+		ImageCache.release(decodedImage);
+		decodedImage = null;
+		disposeFrames();
+	}
+
+	/**
+	 * Returns the memory budget for composited frames.
+	 *
+	 * @return the budget in bytes
+	 */
+	public int getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	/**
+	 * Sets the memory budget for composited frames of animated images. If the
+	 * composited frames exceed the budget, the least recently shown frames are
+	 * discarded and composited again when they are shown next time. At least
+	 * one frame is kept. The default is {@value #DEFAULT_MEMORY_BUDGET} bytes.
+	 *
+	 * @param memoryBudget
+	 *        the budget in bytes
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the budget is less than
+	 *            zero</li>
+	 *            </ul>
+	 */
+	public synchronized void setMemoryBudget(final int memoryBudget) {
+		if (memoryBudget < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.memoryBudget = memoryBudget;
+		clearFrames();
+	}
+
 	/**
 	 * Returns the size of the decorator. The size is calculated by native image
 	 * size or the size defined by {@link #scaleTo(Point)}. If no image is set
@@ -114,7 +201,39 @@ public final class ImageDecorator extends AbstractDecorator {
 	 *            </ul>
 	 */
 	public void loadImage(final InputStream stream) {
-		setImages(imageLoader.load(stream));
+		cancelLoad();
+		setImages(ImageCache.decode(loader -> loader.load(stream)));
+	}
+
+	/**
+	 * Loads an image from the specified input stream or takes it from the
+	 * {@link ImageCache}, if an image with the same key has been loaded before.
+	 * The stream is not read in this case.
+	 *
+	 * @param key
+	 *        the key of the image in the cache
+	 * @param stream
+	 *        the input stream to load the images from
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the key or the stream is null</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_IO - if an IO error occurs while reading from the
+	 *            stream</li>
+	 *            <li>ERROR_INVALID_IMAGE - if the image stream contains invalid
+	 *            data</li>
+	 *            <li>ERROR_UNSUPPORTED_FORMAT - if the image stream contains an
+	 *            unrecognized format</li>
+	 *            </ul>
+	 */
+	public void loadImage(final Object key, final InputStream stream) {
+		if (key == null || stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		cancelLoad();
+		setImages(ImageCache.acquire(key, loader -> loader.load(stream)));
 	}
 
 	/**
@@ -140,7 +259,245 @@ public final class ImageDecorator extends AbstractDecorator {
 	 *            </ul>
 	 */
 	public void loadImage(final String filename) {
-		setImages(imageLoader.load(filename));
+		if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		cancelLoad();
+		setImages(ImageCache.acquire(ImageCache.getFileKey(filename), loader -> loader.load(filename)));
+	}
+
+	/**
+	 * Loads an image from the file with the specified name at a reduced
+	 * resolution, which suffices to show it at the specified size. Large images
+	 * are subsampled while they are decoded, so the memory needed is
+	 * proportional to the specified size instead of the size of the image.
+	 * Animated GIFs and images which are not larger than the specified size
+	 * are loaded as by {@link #loadImage(String)}.
+	 * <p>
+	 * The size at which the image is shown is still defined by
+	 * {@link #scaleTo(Point)}.
+	 * </p>
+	 *
+	 * @param filename
+	 *        the name of the file to load the images from
+	 * @param size
+	 *        the size at which the image will be shown. Use SWT.DEFAULT for a
+	 *        dimension which follows the aspect ratio.
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the file name or the size is
+	 *            null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the width or height is less
+	 *            than 1 and not SWT.DEFAULT</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_IO - if an IO error occurs while reading from the
+	 *            file</li>
+	 *            <li>ERROR_INVALID_IMAGE - if the image file contains invalid
+	 *            data</li>
+	 *            <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an
+	 *            unrecognized format</li>
+	 *            </ul>
+	 */
+	public void loadThumbnail(final String filename, final Point size) {
+		if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		checkSize(size);
+
+		cancelLoad();
+		setImages(ImageCache.acquire(ImageCache.getFileKey(filename, size), loader -> ThumbnailDecoder.load(loader, filename, size)));
+	}
+
+	/**
+	 * Loads an image from the specified input stream in the background. The
+	 * placeholder is shown until the image is loaded. The load is cancelled if
+	 * the parent is disposed or another image is set or loaded in the meantime.
+	 *
+	 * @param stream
+	 *        the input stream to load the images from
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, completed exceptionally with the
+	 *         {@link SWTException} or error thrown by
+	 *         {@link #loadImage(InputStream)} or cancelled.
+	 *         Cancelling it cancels the load.
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 */
+	public CompletableFuture<Void> loadImageAsync(final InputStream stream, final Image placeholder) {
+		if (stream == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return loadImageAsync(() -> ImageCache.decode(loader -> loader.load(stream)), placeholder);
+	}
+
+	/**
+	 * Loads an image from the file with the specified name in the background.
+	 * The placeholder is shown until the image is loaded. The load is cancelled
+	 * if the parent is disposed or another image is set or loaded in the
+	 * meantime.
+	 *
+	 * @param filename
+	 *        the name of the file to load the images from
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, completed exceptionally with the
+	 *         {@link SWTException} or error thrown by
+	 *         {@link #loadImage(String)} or cancelled.
+	 *         Cancelling it cancels the load.
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 */
+	public CompletableFuture<Void> loadImageAsync(final String filename, final Image placeholder) {
+		if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		return loadImageAsync(() -> ImageCache.acquire(ImageCache.getFileKey(filename), loader -> loader.load(filename)), placeholder);
+	}
+
+	/**
+	 * Loads an image from the file with the specified name at a reduced
+	 * resolution in the background. The placeholder is shown until the image is
+	 * loaded. The load is cancelled if the parent is disposed or another image
+	 * is set or loaded in the meantime.
+	 *
+	 * @param filename
+	 *        the name of the file to load the images from
+	 * @param size
+	 *        the size at which the image will be shown. Use SWT.DEFAULT for a
+	 *        dimension which follows the aspect ratio.
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, completed exceptionally with the
+	 *         {@link SWTException} or error thrown by
+	 *         {@link #loadThumbnail(String, Point)} or cancelled.
+	 *         Cancelling it cancels the load.
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the file name or the size is
+	 *            null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the width or height is less
+	 *            than 1 and not SWT.DEFAULT or the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 *
+	 * @see #loadThumbnail(String, Point)
+	 */
+	public CompletableFuture<Void> loadThumbnailAsync(final String filename, final Point size, final Image placeholder) {
+		if (filename == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		checkSize(size);
+
+		return loadImageAsync(() -> ImageCache.acquire(ImageCache.getFileKey(filename, size), loader -> ThumbnailDecoder.load(loader, filename, size)),
+				placeholder);
+	}
+
+	private synchronized CompletableFuture<Void> loadImageAsync(final Supplier<ImageCache.DecodedImage> load, final Image placeholder) {
+		Util.checkResource(placeholder, true);
+
+		if (placeholder != null) {
+			setImage(placeholder);
+		} else {
+			cancelLoad();
+		}
+
+		final Display display = getDisplay();
+		final Object token = new Object();
+		final CompletableFuture<Void> result = new CompletableFuture<>();
+
+		loadToken = token;
+		pendingResult = result;
+		pendingLoad = LOADER.submit(() -> {
+			try {
+				final ImageCache.DecodedImage image = load.get();
+				final boolean posted = asyncExec(display, () -> {
+					if (applyLoad(token)) {
+						setImages(image);
+						result.complete(null);
+					} else {
+						ImageCache.release(image);
+					}
+				});
+
+				if (!posted) {
+					ImageCache.release(image);
+					result.cancel(false);
+				}
+			} catch (final Throwable e) {
+				// errors like OutOfMemoryError must complete the future, too
+				final boolean posted = asyncExec(display, () -> {
+					if (applyLoad(token)) result.completeExceptionally(e);
+				});
+
+				if (!posted) result.cancel(false);
+			}
+		});
+
+		// cancelling the future cancels the load
+		result.whenComplete((r, e) -> {
+			if (result.isCancelled()) cancelLoad(token);
+		});
+
+		return result;
+	}
+
+	private synchronized boolean applyLoad(final Object token) {
+		if (token != loadToken || getParent().isDisposed()) {
+			return false;
+		}
+
+		loadToken = null;
+		pendingLoad = null;
+		pendingResult = null;
+
+		return true;
+	}
+
+	private synchronized void cancelLoad(final Object token) {
+		if (token == loadToken) {
+			cancelLoad();
+		}
+	}
+
+	private synchronized void cancelLoad() {
+		if (loadToken != null) {
+			pendingLoad.cancel(true);
+			pendingResult.cancel(false);
+			loadToken = null;
+			pendingLoad = null;
+			pendingResult = null;
+		}
+	}
+
+	// returns false if the display has been disposed, so the runnable is never
+	// executed
+	private static boolean asyncExec(final Display display, final Runnable runnable) {
+		if (display.isDisposed()) {
+			return false;
+		}
+
+		try {
+			display.asyncExec(runnable);
+			return true;
+		} catch (final SWTException e) {
+			if (e.code != SWT.ERROR_DEVICE_DISPOSED) throw e;
+			return false;
+		}
 	}
 
 	/**
@@ -152,10 +509,14 @@ public final class ImageDecorator extends AbstractDecorator {
 	 */
 	public synchronized void setImage(final Image image) {
 		Util.checkResource(image, true);
+		cancelLoad();
 		if (image == null) {
+			ImageCache.release(decodedImage);
+			decodedImage = null;
 			images = null;
+			disposeFrames();
 		} else {
-			setImages(image.getImageData());
+			setImages(new ImageCache.DecodedImage(image.getImageData()));
 		}
 	}
 
@@ -167,96 +528,157 @@ public final class ImageDecorator extends AbstractDecorator {
 	 *        minimum height and width are 1 pixel.
 	 */
 	public void scaleTo(final Point scaleTo) {
-		if (scaleTo == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
-		if (scaleTo.x != -1 && scaleTo.x <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		if (scaleTo.y != -1 && scaleTo.y <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		checkSize(scaleTo);
 
 		this.scaleTo = scaleTo;
+		clearFrames();
+	}
+
+	private static void checkSize(final Point size) {
+		if (size == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		if (size.x != -1 && size.x <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		if (size.y != -1 && size.y <= 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 	}
 
-	private synchronized void setImages(final ImageData... imageDatas) {
-		createImages(imageDatas);
+	private synchronized void setImages(final ImageCache.DecodedImage image) {
+		createImages(image);
 		idx = 0;
 
 		if (!animated) {
 			doAnimate();
 		}
-		getParent().redraw();
+		redraw();
 	}
 
-	private void createImages(final ImageData... imageData) {
-		final Display display = getDisplay();
+	private void createImages(final ImageCache.DecodedImage image) {
+		final ImageData[] imageData = image.frames;
 
-		images = new ImageData[imageData.length];
-		scaledImages = new ImageData[imageData.length];
+		disposeFrames();
+		ImageCache.release(decodedImage);
+		decodedImage = image;
+		images = imageData;
 
 		if (imageData.length == 1) {
 			imageSize = new Point(imageData[0].width, imageData[0].height);
-			images[0] = imageData[0];
-			scaledImages[0] = images[0];
+			backgroundRGB = null;
+		} else {
+			imageSize = new Point(image.logicalScreenWidth, image.logicalScreenHeight);
+			backgroundRGB = image.backgroundPixel == -1 ? null : imageData[0].palette.getRGB(image.backgroundPixel);
+		}
+	}
+
+	private Image getFrame(final int idx) {
+		final Point size = getSize();
 
-			return;
+		if (!size.equals(frameSize)) {
+			clearFrames();
+			frameSize = size;
 		}
 
-		imageSize = new Point(imageLoader.logicalScreenWidth, imageLoader.logicalScreenHeight);
+		Image frame = frames.get(Integer.valueOf(idx));
 
-		Util.withResource(new Image(display, imageSize.x, imageSize.y), drawingArea -> {
-			Util.withResource(new GC(drawingArea), gc -> {
-				Color bgColor = null;
+		if (frame == null) {
+			if (images.length == 1 && size.equals(imageSize)) {
+				frame = new Image(getDisplay(), images[0]);
+			} else if (images.length == 1) {
+				frame = Util.withResource(new Image(getDisplay(), images[0]), (final Image img) -> createScaledImage(img, size));
+			} else {
+				compose(idx);
+				frame = size.equals(imageSize) ? new Image(getDisplay(), canvas, SWT.IMAGE_COPY) : createScaledImage(canvas, size);
+			}
+			frames.put(Integer.valueOf(idx), frame);
+		}
 
-				if (imageLoader.backgroundPixel != -1) {
-					bgColor = new Color(display, imageData[0].palette.getRGB(imageLoader.backgroundPixel));
-					gc.setBackground(bgColor);
-				}
+		return frame;
+	}
 
-				for (int i = 0; i < imageData.length; i++) {
-					if (imageData[0].disposalMethod == SWT.DM_FILL_BACKGROUND) {
-						gc.fillRectangle(0, 0, imageSize.x, imageSize.y);
-					}
-					images[i] = createFrame(drawingArea, gc, imageData[i]);
-					scaledImages[i] = images[i];
-				}
+	private Image createScaledImage(final Image image, final Point size) {
+		final Image scaledImage = new Image(getDisplay(), size.x, size.y);
 
-				Util.whenNotNull(bgColor, Color::dispose);
-			});
+		Util.withResource(new GC(scaledImage), gc -> {
+			gc.setBackground(getParent().getBackground());
+			gc.fillRectangle(0, 0, size.x, size.y);
+			if (size.x < imageSize.x && size.y < imageSize.y) {
+				gc.setInterpolation(SWT.LOW);
+			} else {
+				gc.setInterpolation(SWT.HIGH);
+			}
+			gc.drawImage(image, 0, 0, imageSize.x, imageSize.y, 0, 0, size.x, size.y);
 		});
+
+		return scaledImage;
 	}
 
-	private ImageData createFrame(final Image drawingArea, final GC gc, final ImageData imageData) {
-		return Util.withResource(new Image(getDisplay(), imageData, imageData.getTransparencyMask()), img -> {
-			gc.drawImage(img, imageData.x, imageData.y);
+	// composites the frames following the last composed frame up to the
+	// specified frame, restarts with the first frame if necessary
+	private void compose(final int idx) {
+		if (canvas == null) {
+			canvas = new Image(getDisplay(), imageSize.x, imageSize.y);
+			composedIdx = -1;
+		} else if (idx <= composedIdx) {
+			composedIdx = -1;
+		}
+
+		Util.withResource(new GC(canvas), (final GC gc) -> {
+			if (composedIdx == -1) {
+				fillBackground(gc, 0, 0, imageSize.x, imageSize.y);
+			}
 
-			final ImageData frameData = drawingArea.getImageData();
-			frameData.delayTime = imageData.delayTime;
+			for (int i = composedIdx + 1; i <= idx; i++) {
+				if (i > 0) {
+					disposeFrame(gc, images[i - 1]);
+				}
 
-			return frameData;
+				final ImageData imageData = images[i];
+
+				if (imageData.disposalMethod == SWT.DM_FILL_PREVIOUS) {
+					Util.whenNotNull(previousCanvas, Image::dispose);
+					previousCanvas = new Image(getDisplay(), canvas, SWT.IMAGE_COPY);
+				}
+
+				Util.withResource(new Image(getDisplay(), imageData, imageData.getTransparencyMask()), img -> {
+					gc.drawImage(img, imageData.x, imageData.y);
+				});
+			}
 		});
+
+		composedIdx = idx;
 	}
 
-	private ImageData getScaledImage(final int idx) {
-		final Point size = getSize();
-		final Point oldScaledSize = new Point(scaledImages[idx].width, scaledImages[idx].height);
-
-		if (!oldScaledSize.equals(size)) {
-			Util.withResource(new Image(getDisplay(), size.x, size.y), tmpImg -> {
-				Util.withResource(new GC(tmpImg), tmpGC -> {
-					Util.withResource(new Image(getDisplay(), images[idx]), img -> {
-						tmpGC.setBackground(getParent().getBackground());
-						tmpGC.fillRectangle(0, 0, size.x, size.y);
-						if (size.x < images[0].width && size.y < images[0].height) {
-							tmpGC.setInterpolation(SWT.LOW);
-						} else {
-							tmpGC.setInterpolation(SWT.HIGH);
-						}
-						tmpGC.drawImage(img, 0, 0, imageSize.x, imageSize.y, 0, 0, size.x, size.y);
-					});
-
-					scaledImages[idx] = tmpImg.getImageData();
-				});
+	private void disposeFrame(final GC gc, final ImageData imageData) {
+		if (imageData.disposalMethod == SWT.DM_FILL_BACKGROUND) {
+			fillBackground(gc, imageData.x, imageData.y, imageData.width, imageData.height);
+		} else if (imageData.disposalMethod == SWT.DM_FILL_PREVIOUS && previousCanvas != null) {
+			gc.drawImage(previousCanvas, imageData.x, imageData.y, imageData.width, imageData.height, imageData.x, imageData.y, imageData.width,
+					imageData.height);
+		}
+	}
+
+	private void fillBackground(final GC gc, final int x, final int y, final int width, final int height) {
+		if (backgroundRGB == null) {
+			gc.setBackground(getParent().getBackground());
+			gc.fillRectangle(x, y, width, height);
+		} else {
+			Util.withResource(new Color(getDisplay(), backgroundRGB), color -> {
+				gc.setBackground(color);
+				gc.fillRectangle(x, y, width, height);
 			});
 		}
+	}
+
+	private void clearFrames() {
+		frames.values().forEach(Image::dispose);
+		frames.clear();
+	}
+
+	private void disposeFrames() {
+		clearFrames();
 
-		return scaledImages[idx];
+		Util.whenNotNull(canvas, Image::dispose);
+		Util.whenNotNull(previousCanvas, Image::dispose);
+		canvas = null;
+		previousCanvas = null;
+		composedIdx = -1;
 	}
 
 	private synchronized void doAnimate() {
@@ -267,11 +689,11 @@ public final class ImageDecorator extends AbstractDecorator {
 				animated = false;
 			} else if (images.length == 1) {
 				animated = false;
-				getParent().redraw();
+				redraw();
 			} else {
 				idx = ++idx % images.length;
 				doAnimate();
-				getParent().redraw();
+				redraw();
 			}
 		});
 	}
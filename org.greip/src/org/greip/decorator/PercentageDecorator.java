@@ -3,6 +3,7 @@ package org.greip.decorator;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Control;
 import org.greip.common.Util;
@@ -26,6 +27,8 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 	private CircleType circleType = CircleType.Circle;
 
 	private final AnimationContext ctx = new AnimationContext();
+	private double animationStart;
+	private Image ringImage;
 
 	/**
 	 * Creates a new instance of the decorator.
@@ -52,6 +55,12 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 		return ctx;
 	}
 
+	@Override
+	protected void dispose() {
+		super.dispose();
+		disposeRingImage();
+	}
+
 	/**
 	 * Returns the current circle background color.
 	 *
@@ -75,6 +84,7 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 	 */
 	public void setBackground(final Color color) {
 		this.circleBackground = Util.checkResource(color, true);
+		disposeRingImage();
 		redraw();
 	}
 
@@ -128,6 +138,7 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 	public void setCircleType(final CircleType circleType) {
 		if (circleType == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 		this.circleType = circleType;
+		disposeRingImage();
 		redraw();
 	}
 
@@ -156,6 +167,7 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 	public void setInnerDiameter(final int innerDiameter) {
 		if (innerDiameter < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		this.innerDiameter = innerDiameter;
+		disposeRingImage();
 		redraw();
 	}
 
@@ -183,6 +195,7 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 	public void setOuterDiameter(final int outerDiameter) {
 		if (outerDiameter < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		this.outerDiameter = outerDiameter;
+		disposeRingImage();
 		redraw();
 	}
 
@@ -279,9 +292,34 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 	public void setValue(final Double value) {
 		if (value == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 		if (value.compareTo(ZERO) < 0 || value.compareTo(maxValue) > 0) SWT.error(SWT.ERROR_INVALID_RANGE);
+
+		if (isAnimationEnabled()) {
+			final double progress = ctx.getProgress();
+			final double animatedValue = getAnimatedValue(progress);
+
+			if (progress < 1) {
+				// a running animation keeps its start time and is retargeted, the
+				// start value is chosen so that the displayed value doesn't jump
+				animationStart = (animatedValue - value.doubleValue() * progress) / (1 - progress);
+			} else {
+				animationStart = animatedValue;
+				ctx.init();
+			}
+		}
 		super.setValue(value);
 	}
 
+	private double getAnimatedValue() {
+		return getAnimatedValue(ctx.getProgress());
+	}
+
+	private double getAnimatedValue(final double progress) {
+		if (getValue() == null) return minValue.doubleValue();
+
+		final double value = getValue().doubleValue();
+		return animationStart + (value - animationStart) * progress;
+	}
+
 	@Override
 	protected Double getValueToDisplay() {
 		return Double.valueOf(getValue().doubleValue() * 100 / (getMaxValue().doubleValue() - getMinValue().doubleValue()));
@@ -305,9 +343,6 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 			}
 
 			paintValue(gc, x + (size.x - textSize.x) / 2, y + offsetY);
-
-		} else {
-			paintCircle(gc, x, y);
 		}
 	}
 
@@ -325,24 +360,48 @@ public final class PercentageDecorator extends AbstractValueDecorator<Double> {
 
 	private void paintCircle(final GC gc, final int x, final int y) {
 		final double range = maxValue.doubleValue() - minValue.doubleValue();
-		final double increment = range / ctx.getStepCount();
-		final double curValue = Math.min(range / ctx.getStepCount() * ctx.getStep() + increment, getValue().doubleValue());
+		final double curValue = getAnimatedValue();
 
 		final int curAngle = (int) Math.round(curValue * circleType.angle / range);
 
-		gc.setForeground(Util.nvl(getTreshholdColor(getCircleForeground()), getParent().getForeground()));
-		paintArc(gc, x, y, outerDiameter, circleType.angle - curAngle + circleType.offset, curAngle);
-		gc.setForeground(Util.nvl(getCircleBackground(), getDisplay().getSystemColor(SWT.COLOR_GRAY)));
-		paintArc(gc, x, y, outerDiameter, circleType.offset, circleType.angle - curAngle);
+		Util.whenNotNull(getRingImage(), image -> gc.drawImage(image, x, y));
+
+		if (curAngle != 0) {
+			gc.setForeground(Util.nvl(getTreshholdColor(getCircleForeground()), getParent().getForeground()));
+			paintArc(gc, x, y, circleType.angle - curAngle + circleType.offset, curAngle);
+		}
 	}
 
-	private void paintArc(final GC gc, final int x, final int y, final int diameter, final int startAngle, final int arcAngle) {
+	private void paintArc(final GC gc, final int x, final int y, final int startAngle, final int arcAngle) {
 		final int lineWidth = (outerDiameter - innerDiameter) / 2;
 
-		gc.setLineWidth(2);
-		for (int i = 1; i < lineWidth; i++) {
-			gc.drawArc(x + i, y + i, diameter - i - i, diameter - i - i, startAngle, arcAngle);
+		if (lineWidth > 1) {
+			final int inset = lineWidth / 2;
+
+			gc.setLineWidth(lineWidth);
+			gc.drawArc(x + inset, y + inset, outerDiameter - lineWidth, outerDiameter - lineWidth, startAngle, arcAngle);
+			gc.setLineWidth(1);
+		}
+	}
+
+	private Image getRingImage() {
+		if (ringImage == null && outerDiameter > 0) {
+			final Color color = Util.nvl(getCircleBackground(), getDisplay().getSystemColor(SWT.COLOR_GRAY));
+
+			ringImage = Util.createTransparentImage(getDisplay(), new Point(outerDiameter, outerDiameter), gc -> {
+				gc.setForeground(color);
+				gc.setAntialias(SWT.ON);
+				paintArc(gc, 0, 0, circleType.offset, circleType.angle);
+			});
+		}
+
+		return ringImage;
+	}
+
+	private void disposeRingImage() {
+		if (ringImage != null) {
+			ringImage.dispose();
+			ringImage = null;
 		}
-		gc.setLineWidth(1);
 	}
 }
@@ -10,7 +10,9 @@ package org.greip.decorator;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Control;
 import org.greip.common.Util;
@@ -33,6 +35,10 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 	private Point cornerArc = new Point(50, 50);
 
 	private final AnimationContext ctx = new AnimationContext();
+	private Image shapeImage;
+	private Color shapeForeground;
+	private Font shapeFont;
+	private Point shapeDPI;
 
 	/**
 	 * Creates a new instance of the decorator.
@@ -75,6 +81,7 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 	 */
 	public void setBackground(final Color color) {
 		this.background = Util.checkResource(color, true);
+		disposeShapeImage();
 		redraw();
 	}
 
@@ -109,6 +116,7 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 	public void setCornerArc(final int arcWidth, final int arcHeight) {
 		if (arcWidth < 0 || arcHeight < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		this.cornerArc = new Point(arcWidth, arcHeight);
+		disposeShapeImage();
 		redraw();
 	}
 
@@ -144,6 +152,7 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 	 */
 	public void setForeground(final Color color) {
 		this.foreground = Util.checkResource(color, true);
+		disposeShapeImage();
 		redraw();
 	}
 
@@ -162,6 +171,7 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 	public void setLineWidth(final int lineWidth) {
 		if (lineWidth < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		this.lineWidth = lineWidth;
+		disposeShapeImage();
 		redraw();
 	}
 
@@ -191,6 +201,7 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 	public void setShapeSize(final int width, final int height) {
 		if (width < 1 || height < 1) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		this.shapeSize = new Point(width, height);
+		disposeShapeImage();
 		redraw();
 	}
 
@@ -215,37 +226,20 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 		final Point size = getSize();
 		final int posX = x + (size.x - shapeSize.x) / 2;
 		final int posY = y + (size.y - shapeSize.y) / 2;
-
-		final Color fg = Util.nvl(foreground, getParent().getForeground());
-
-		gc.setAntialias(SWT.ON);
+		final Image image = getShapeImage(Util.nvl(foreground, getParent().getForeground()));
 
 		if (ctx.isActive()) {
-			final int steps = ctx.getStepCount();
-			final int step = ctx.getStep();
-			final int sizeX = Math.min(shapeSize.x, shapeSize.x / steps * step);
-			final int sizeY = Math.min(shapeSize.y, shapeSize.y / steps * step);
-			final int arcWidth = Math.min(cornerArc.x, cornerArc.x / steps * step);
-			final int arcHeight = Math.min(cornerArc.y, cornerArc.y / steps * step);
-
-			gc.setBackground(fg);
-			gc.fillRoundRectangle(posX + (shapeSize.x - sizeX) / 2, posY + (shapeSize.y - sizeY) / 2, sizeX, sizeY, arcWidth, arcHeight);
+			final double progress = ctx.getProgress();
+			final int sizeX = (int) (shapeSize.x * progress);
+			final int sizeY = (int) (shapeSize.y * progress);
 
-		} else {
-			if (background != null) {
-				gc.setBackground(background);
-				gc.fillRoundRectangle(posX + 1, posY + 1, shapeSize.x - 2, shapeSize.y - 2, Math.max(0, cornerArc.x), Math.max(0, cornerArc.y));
+			if (sizeX > 0 && sizeY > 0) {
+				gc.drawImage(image, 0, 0, shapeSize.x, shapeSize.y, posX + (shapeSize.x - sizeX) / 2, posY + (shapeSize.y - sizeY) / 2, sizeX,
+						sizeY);
 			}
 
-			if (lineWidth > 0) {
-				gc.setForeground(fg);
-
-				for (int i = 0; i < lineWidth; i++) {
-					gc.setLineWidth(i == 0 || i == lineWidth - 1 ? 1 : 2);
-					gc.drawRoundRectangle(posX + i, posY + i, shapeSize.x - i * 2 - 1, shapeSize.y - i * 2 - 1,
-							Math.max(0, (int) (cornerArc.x - i * 1.5f)), Math.max(0, (int) (cornerArc.y - i * 1.5f)));
-				}
-			}
+		} else {
+			gc.drawImage(image, posX, posY);
 
 			final Point valueSize = getValueSize();
 			paintValue(gc, x + (size.x - valueSize.x) / 2, y + (size.y - valueSize.y) / 2);
@@ -256,4 +250,56 @@ public final class ShapeDecorator<T extends Comparable<T>> extends AbstractValue
 	protected AnimationContext getAnimationContext() {
 		return ctx;
 	}
+
+	@Override
+	protected void dispose() {
+		super.dispose();
+		disposeShapeImage();
+	}
+
+	// the shape is painted once and drawn from the image until its appearance,
+	// the font of the parent or the resolution of the display changes
+	private Image getShapeImage(final Color fg) {
+		final Font font = getParent().getFont();
+		final Point dpi = getDisplay().getDPI();
+
+		if (shapeImage != null && !(fg.equals(shapeForeground) && font.equals(shapeFont) && dpi.equals(shapeDPI))) {
+			disposeShapeImage();
+		}
+
+		if (shapeImage == null) {
+			shapeForeground = fg;
+			shapeFont = font;
+			shapeDPI = dpi;
+			shapeImage = Util.createTransparentImage(getDisplay(), shapeSize, gc -> paintShape(gc, fg));
+		}
+
+		return shapeImage;
+	}
+
+	private void paintShape(final GC gc, final Color fg) {
+		gc.setAntialias(SWT.ON);
+
+		if (background != null) {
+			gc.setBackground(background);
+			gc.fillRoundRectangle(1, 1, shapeSize.x - 2, shapeSize.y - 2, Math.max(0, cornerArc.x), Math.max(0, cornerArc.y));
+		}
+
+		if (lineWidth > 0) {
+			gc.setForeground(fg);
+
+			for (int i = 0; i < lineWidth; i++) {
+				gc.setLineWidth(i == 0 || i == lineWidth - 1 ? 1 : 2);
+				gc.drawRoundRectangle(i, i, shapeSize.x - i * 2 - 1, shapeSize.y - i * 2 - 1, Math.max(0, (int) (cornerArc.x - i * 1.5f)),
+						Math.max(0, (int) (cornerArc.y - i * 1.5f)));
+			}
+		}
+	}
+
+	private void disposeShapeImage() {
+		if (shapeImage != null) {
+			shapeImage.dispose();
+			shapeImage = null;
+		}
+	}
 }
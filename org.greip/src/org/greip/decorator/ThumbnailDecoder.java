@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.decorator;
+
+import java.awt.image.BufferedImage;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.ImageLoader;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.Point;
+
+/**
+ * Decodes images at a reduced resolution, if the size at which they are shown
+ * is known in advance. The image is subsampled by the Image I/O reader while it
+ * is read, so only every n-th pixel of every n-th row is kept and the memory
+ * needed is proportional to the size of the result instead of the size of the
+ * image.
+ * <p>
+ * Images which need not to be reduced, animated GIFs and formats without an
+ * Image I/O reader are decoded by {@link ImageLoader} as usual.
+ * </p>
+ *
+ * @author Thomas Lorbeer
+ */
+final class ThumbnailDecoder {
+
+	private ThumbnailDecoder() {
+	}
+
+	/**
+	 * Decodes the image file at a resolution which suffices to show it at the
+	 * specified size.
+	 *
+	 * @param loader
+	 *        the loader which is used if the image is not subsampled
+	 * @param filename
+	 *        the name of the file to load the images from
+	 * @param size
+	 *        the size at which the image is shown, SWT.DEFAULT for a dimension
+	 *        which follows the aspect ratio
+	 *
+	 * @return the decoded frames
+	 *
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_IO - if an IO error occurs while reading from the
+	 *            file</li>
+	 *            <li>ERROR_INVALID_IMAGE - if the image file contains invalid
+	 *            data</li>
+	 *            <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an
+	 *            unrecognized format</li>
+	 *            </ul>
+	 */
+	static ImageData[] load(final ImageLoader loader, final String filename, final Point size) {
+		try (ImageInputStream input = ImageIO.createImageInputStream(new File(filename))) {
+			final Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+
+			if (readers != null && readers.hasNext()) {
+				final ImageReader reader = readers.next();
+
+				try {
+					reader.setInput(input, true, true);
+
+					final int subsampling = getSubsampling(reader.getWidth(0), reader.getHeight(0), size);
+					if (subsampling > 1 && !"gif".equalsIgnoreCase(reader.getFormatName())) { //$NON-NLS-1$
+						final ImageReadParam param = reader.getDefaultReadParam();
+						param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+						final ImageData imageData = toImageData(reader.read(0, param));
+						loader.logicalScreenWidth = imageData.width;
+						loader.logicalScreenHeight = imageData.height;
+						loader.backgroundPixel = -1;
+
+						return new ImageData[] { imageData };
+					}
+				} finally {
+					reader.dispose();
+				}
+			}
+		} catch (final IOException e) {
+			SWT.error(getErrorCode(e), e);
+		} catch (final SWTException e) {
+			throw e;
+		} catch (final RuntimeException e) {
+			// readers throw runtime exceptions for some kinds of corrupt data
+			SWT.error(SWT.ERROR_INVALID_IMAGE, e);
+		}
+
+		return loader.load(filename);
+	}
+
+	// Image I/O reports corrupt data by an IIOException, which wraps the
+	// exception of the stream if it is caused by an IO error
+	private static int getErrorCode(final IOException e) {
+		final Throwable cause = e instanceof IIOException ? e.getCause() : e;
+
+		if (cause instanceof IOException && !(cause instanceof IIOException) && !(cause instanceof EOFException)) {
+			return SWT.ERROR_IO;
+		}
+		return SWT.ERROR_INVALID_IMAGE;
+	}
+
+	/**
+	 * Returns the factor by which the image is subsampled. At least twice the
+	 * pixels of the target size are kept, so the final scaling of the decorator
+	 * still has enough samples to smooth the image.
+	 *
+	 * @param width
+	 *        the width of the image
+	 * @param height
+	 *        the height of the image
+	 * @param size
+	 *        the size at which the image is shown
+	 *
+	 * @return the factor, 1 if the image is not reduced
+	 */
+	static int getSubsampling(final int width, final int height, final Point size) {
+		if (size.x == SWT.DEFAULT && size.y == SWT.DEFAULT) {
+			return 1;
+		}
+
+		final int ratioX = size.x == SWT.DEFAULT ? Integer.MAX_VALUE : width / size.x;
+		final int ratioY = size.y == SWT.DEFAULT ? Integer.MAX_VALUE : height / size.y;
+
+		return Math.max(1, Math.min(ratioX, ratioY) / 2);
+	}
+
+	private static ImageData toImageData(final BufferedImage image) {
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+		final boolean hasAlpha = image.getColorModel().hasAlpha();
+		final ImageData imageData = new ImageData(width, height, 24, new PaletteData(0xFF0000, 0xFF00, 0xFF));
+		final int[] pixels = new int[width];
+		final byte[] alphas = new byte[width];
+
+		for (int y = 0; y < height; y++) {
+			image.getRGB(0, y, width, 1, pixels, 0, width);
+			imageData.setPixels(0, y, width, pixels, 0);
+
+			if (hasAlpha) {
+				for (int x = 0; x < width; x++) {
+					alphas[x] = (byte) (pixels[x] >>> 24);
+				}
+				imageData.setAlphas(0, y, width, alphas, 0);
+			}
+		}
+
+		return imageData;
+	}
+}
@@ -43,6 +43,22 @@ public class BorderPainter {
 	 *        The backgound color that is used for paintig edges.
 	 */
 	public void doPaint(final GC gc, final Color edgeBackground) {
+		doPaint(gc, 0, 0, edgeBackground);
+	}
+
+	/**
+	 * The mothod paints the border to GC at the specified location.
+	 *
+	 * @param gc
+	 *        GC
+	 * @param offsetX
+	 *        the x coordinate of the bordered area
+	 * @param offsetY
+	 *        the y coordinate of the bordered area
+	 * @param edgeBackground
+	 *        The backgound color that is used for paintig edges.
+	 */
+	public void doPaint(final GC gc, final int offsetX, final int offsetY, final Color edgeBackground) {
 		final int radius = borderable.getCornerRadius();
 		final int lineWidth = borderable.getBorderWidth();
 		final Point size = borderable.getSize();
@@ -58,10 +74,13 @@ public class BorderPainter {
 			for (int x = 0; x < radius + lineWidth * 2; x++) {
 				for (int y = 0; y < radius + lineWidth * 2; y++) {
 					if (imageData.getPixel(x, y) >= 0) {
-						gc.drawLine(x, -1, x, y);
-						gc.drawLine(size.x - x - 1, -1, size.x - x - 1, y);
-						gc.drawLine(x, size.y, x, size.y - y - 1);
-						gc.drawLine(size.x - x - 1, size.y, size.x - x - 1, size.y - y - 1);
+						final int left = offsetX + x;
+						final int right = offsetX + size.x - x - 1;
+
+						gc.drawLine(left, offsetY - 1, left, offsetY + y);
+						gc.drawLine(right, offsetY - 1, right, offsetY + y);
+						gc.drawLine(left, offsetY + size.y, left, offsetY + size.y - y - 1);
+						gc.drawLine(right, offsetY + size.y, right, offsetY + size.y - y - 1);
 						break;
 					}
 				}
@@ -71,7 +90,8 @@ public class BorderPainter {
 		if (lineWidth > 0) {
 			gc.setForeground(borderable.getBorderColor());
 			gc.setLineWidth(lineWidth);
-			gc.drawRoundRectangle(lineWidth / 2, lineWidth / 2, size.x - lineWidth, size.y - lineWidth, radius * 2, radius * 2);
+			gc.drawRoundRectangle(offsetX + lineWidth / 2, offsetY + lineWidth / 2, size.x - lineWidth, size.y - lineWidth, radius * 2,
+					radius * 2);
 		}
 	}
 
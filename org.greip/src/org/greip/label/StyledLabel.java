@@ -10,6 +10,8 @@
 package org.greip.label;
 
 import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import org.eclipse.swt.SWT;
@@ -26,6 +28,7 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.TypedListener;
+import org.greip.common.FrameScheduler;
 import org.greip.common.Greip;
 import org.greip.common.Util;
 import org.greip.markup.Anchor;
@@ -57,10 +60,23 @@ import org.greip.markup.MarkupText;
  */
 public class StyledLabel extends Label {
 
+	private static final int SIZE_CACHE_SIZE = 8;
+
 	private final MarkupText markupText = new MarkupText(this, new HtmlMarkupParser());
+	private final MarkupText sizeMarkupText = new MarkupText(this, new HtmlMarkupParser());
 	private String text = "";
 	private final Image tmpImage;
 
+	private Point layoutSize;
+	private final Map<Point, Point> sizeCache = new LinkedHashMap<Point, Point>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Point, Point> eldest) {
+			return size() > SIZE_CACHE_SIZE;
+		}
+	};
+
 	/**
 	 * Constructs a new instance of this class given its parent and a style value
 	 * describing its behavior and appearance.
@@ -116,8 +132,13 @@ public class StyledLabel extends Label {
 		addListener(SWT.Paint, e -> {
 			final Point size = getSize();
 			final Point offset = getOffset();
+			final Point newLayoutSize = new Point(size.x - offset.x, size.y - offset.y);
+
+			if (!newLayoutSize.equals(layoutSize)) {
+				markupText.layout(getText(), newLayoutSize.x, newLayoutSize.y);
+				layoutSize = newLayoutSize;
+			}
 
-			markupText.layout(getText(), size.x - offset.x, size.y - offset.y);
 			final int y = (size.y - markupText.getSize().y) / 2;
 			markupText.getTextLayout().draw(e.gc, offset.x - getBorderWidth(), y);
 		});
@@ -138,6 +159,11 @@ public class StyledLabel extends Label {
 		});
 	}
 
+	// defers the redraw to the next frame, so several changes result in one paint
+	private void scheduleRedraw() {
+		FrameScheduler.getInstance(getDisplay()).redraw(this);
+	}
+
 	private Image createTemporaryImage() {
 		final ImageData data = new ImageData(1, 1, 24, new PaletteData(0x0000FF, 0x00FF00, 0xFF0000));
 		data.setAlpha(0, 0, 0);
@@ -156,18 +182,30 @@ public class StyledLabel extends Label {
 
 	@Override
 	public Point computeSize(final int wHint, final int hHint, final boolean changed) {
-		final MarkupText markupText = new MarkupText(this, new HtmlMarkupParser());
-		final Point offset = getOffset();
+		final Point hints = new Point(wHint, hHint);
+		Point size = sizeCache.get(hints);
 
-		markupText.setFont(getFont());
-		markupText.setWrap(isWrap());
+		if (size == null) {
+			final Point offset = getOffset();
+
+			sizeMarkupText.setFont(getFont());
+			sizeMarkupText.setWrap(isWrap());
+
+			sizeMarkupText.layout(getText(), wHint == SWT.DEFAULT ? SWT.DEFAULT : wHint - offset.x,
+					hHint == SWT.DEFAULT ? SWT.DEFAULT : hHint - offset.y);
 
-		markupText.layout(getText(), wHint == SWT.DEFAULT ? SWT.DEFAULT : wHint - offset.x,
-				hHint == SWT.DEFAULT ? SWT.DEFAULT : hHint - offset.y);
+			final Point textSize = sizeMarkupText.getSize();
 
-		final Point textSize = markupText.getSize();
+			size = new Point(textSize.x + offset.x, Math.max(textSize.y + offset.y, getMinHeight()));
+			sizeCache.put(hints, size);
+		}
+
+		return new Point(size.x, size.y);
+	}
 
-		return new Point(textSize.x + offset.x, Math.max(textSize.y + offset.y, getMinHeight()));
+	private void invalidateLayout() {
+		layoutSize = null;
+		sizeCache.clear();
 	}
 
 	private int getMinHeight() {
@@ -230,7 +268,8 @@ public class StyledLabel extends Label {
 	public void setAlignment(final int alignment) {
 		if (!Util.in(alignment, SWT.LEFT, SWT.RIGHT, SWT.CENTER, Greip.JUSTIFY)) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		markupText.setAlignment(alignment);
-		redraw();
+		invalidateLayout();
+		scheduleRedraw();
 	}
 
 	@Override
@@ -242,7 +281,8 @@ public class StyledLabel extends Label {
 	@Override
 	public void setFont(final Font font) {
 		markupText.setFont(font);
-		redraw();
+		invalidateLayout();
+		scheduleRedraw();
 	}
 
 	@Override
@@ -254,7 +294,8 @@ public class StyledLabel extends Label {
 	@Override
 	public void setForeground(final Color color) {
 		markupText.setForeground(color);
-		redraw();
+		invalidateLayout();
+		scheduleRedraw();
 	}
 
 	@Override
@@ -266,12 +307,14 @@ public class StyledLabel extends Label {
 	@Override
 	public void setImage(final Image image) {
 		super.setImage(image == null ? tmpImage : image);
+		invalidateLayout();
 	}
 
 	@Override
 	public void setOrientation(final int orientation) {
 		super.setOrientation(orientation);
 		markupText.setOrientation(getOrientation());
+		invalidateLayout();
 	}
 
 	/**
@@ -335,7 +378,8 @@ public class StyledLabel extends Label {
 		if (text == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 
 		this.text = text;
-		redraw();
+		invalidateLayout();
+		scheduleRedraw();
 	}
 
 	/**
@@ -366,7 +410,8 @@ public class StyledLabel extends Label {
 	 */
 	public void setWrap(final boolean wrap) {
 		markupText.setWrap(wrap);
-		redraw();
+		invalidateLayout();
+		scheduleRedraw();
 	}
 
 	/**
@@ -16,5 +16,6 @@ public final class Anchor extends StyleRange {
 
 	public Anchor(final String href) {
 		this.href = href;
+		this.data = href;
 	}
 }
\ No newline at end of file
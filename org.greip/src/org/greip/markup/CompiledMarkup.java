@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.util.Optional;
+
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Instances of this class hold the display independent result of compiling a
+ * markup text: the plain text and a list of runs with symbolic font and color
+ * attributes. Compiled markup is immutable and may be created and shared by
+ * any thread. Only {@link #bind(Display, Font)}, which resolves the fonts and
+ * colors, must be called from the user interface thread.
+ *
+ * @see ICompilingMarkupParser#compile(String)
+ *
+ * @author Thomas Lorbeer
+ */
+public final class CompiledMarkup {
+
+	/** The packed color value which represents the system link color. */
+	static final int LINK_COLOR = -2;
+
+	/**
+	 * A run of characters with the same attributes. Font name
+	 * <code>null</code> and font height zero stand for the name and height of
+	 * the default font, the font style bits are combined with the style of the
+	 * default font.
+	 */
+	static final class Run {
+
+		final int start;
+		final int length;
+		final boolean lineBreak;
+		final String fontName;
+		final int fontHeight;
+		final int fontStyle;
+		final boolean subscript;
+		final boolean superscript;
+		final boolean underline;
+		final boolean strikeout;
+		final int foreground;
+		final int background;
+		final String link;
+
+		Run(final int start) {
+			this(start, 1, true, null, 0, SWT.NONE, false, false, false, false, StyleCache.NO_COLOR, StyleCache.NO_COLOR, null);
+		}
+
+		Run(final int start, final int length, final boolean lineBreak, final String fontName, final int fontHeight, final int fontStyle,
+				final boolean subscript, final boolean superscript, final boolean underline, final boolean strikeout, final int foreground,
+				final int background, final String link) {
+			this.start = start;
+			this.length = length;
+			this.lineBreak = lineBreak;
+			this.fontName = fontName;
+			this.fontHeight = fontHeight;
+			this.fontStyle = fontStyle;
+			this.subscript = subscript;
+			this.superscript = superscript;
+			this.underline = underline;
+			this.strikeout = strikeout;
+			this.foreground = foreground;
+			this.background = background;
+			this.link = link;
+		}
+	}
+
+	private final String plainText;
+	final Run[] runs;
+
+	CompiledMarkup(final String plainText, final Run[] runs) {
+		this.plainText = plainText;
+		this.runs = runs;
+	}
+
+	/**
+	 * Returns the text without markup.
+	 *
+	 * @return the plain text
+	 */
+	public String getPlainText() {
+		return plainText;
+	}
+
+	/**
+	 * Resolves the symbolic fonts and colors and creates the style ranges.
+	 *
+	 * @param display
+	 *        the display which owns the fonts and colors
+	 * @param defaultFont
+	 *        the default font or <code>null</code> to use the JFace default
+	 *        font
+	 *
+	 * @return the parsed markup
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the display is null</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the display</li>
+	 *            </ul>
+	 */
+	public ParsedMarkup bind(final Display display, final Font defaultFont) {
+		if (display == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		final StyleCache styleCache = StyleCache.getInstance(display);
+		final FontData fontData = Optional.ofNullable(defaultFont).orElse(JFaceResources.getFontRegistry().defaultFont()).getFontData()[0];
+		final String defaultFontName = fontData.getName();
+		final int defaultFontNameId = styleCache.getFontNameId(defaultFontName);
+		final int defaultFontHeight = fontData.getHeight();
+		final int defaultFontStyle = defaultFont == null ? SWT.NONE : fontData.getStyle();
+		final int linkColor = StyleCache.pack(display.getSystemColor(SWT.COLOR_LINK_FOREGROUND).getRGB());
+		final StyleRange[] styleRanges = new StyleRange[runs.length];
+
+		for (int i = 0; i < runs.length; i++) {
+			final Run run = runs[i];
+
+			if (run.lineBreak) {
+				styleRanges[i] = new StyleRange(run.start, run.length, null, null);
+				continue;
+			}
+
+			final int height = run.fontHeight == 0 ? defaultFontHeight : run.fontHeight;
+			final int fontHeight = run.subscript || run.superscript ? (int) (height * 0.6f) : height;
+			final int fontStyle = defaultFontStyle | run.fontStyle;
+
+			final StyleRange range = run.link == null ? new StyleRange() : new Anchor(run.link);
+			range.start = run.start;
+			range.length = run.length;
+			range.underline = run.underline;
+			range.strikeout = run.strikeout;
+			range.font = run.fontName == null ? styleCache.getFont(defaultFontNameId, defaultFontName, fontHeight, fontStyle)
+					: styleCache.getFont(styleCache.getFontNameId(run.fontName), run.fontName, fontHeight, fontStyle);
+			range.foreground = styleCache.getColor(run.foreground == LINK_COLOR ? linkColor : run.foreground);
+			range.background = styleCache.getColor(run.background);
+			range.rise = run.superscript ? fontHeight - 1 : run.subscript ? -1 : 0;
+
+			styleRanges[i] = range;
+		}
+
+		return new ParsedMarkup(plainText, styleRanges);
+	}
+}
@@ -1,35 +1,22 @@
 package org.greip.markup;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
-
-import org.eclipse.jface.resource.ColorRegistry;
-import org.eclipse.jface.resource.FontRegistry;
-import org.eclipse.jface.resource.JFaceResources;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyleRange;
-import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
-import org.eclipse.swt.graphics.FontData;
-import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.widgets.Display;
 import org.greip.common.Util;
-import org.xml.sax.Attributes;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.DefaultHandler;
+import org.greip.markup.CompiledMarkup.Run;
+import org.greip.markup.MarkupTokenizer.TokenHandler;
 
-public class HtmlMarkupParser implements IMarkupParser {
+public class HtmlMarkupParser implements ICompilingMarkupParser {
 
 	private enum Tag {
 		BODY,
@@ -44,9 +31,8 @@ public class HtmlMarkupParser implements IMarkupParser {
 		STYLE
 	}
 
-	private static class MarkupHandler extends DefaultHandler {
+	private static class MarkupHandler implements TokenHandler {
 
-		private Font font;
 		private int fontStyle;
 		private int fontHeight;
 		private String fontName;
@@ -55,44 +41,32 @@ public class HtmlMarkupParser implements IMarkupParser {
 		private boolean underline;
 		private boolean strikeout;
 
-		private RGB foreground;
-		private RGB background;
+		private int foreground = StyleCache.NO_COLOR;
+		private int background = StyleCache.NO_COLOR;
 		private String link;
 
 		private boolean lastUnderline;
-		private RGB lastForeground;
+		private int lastForeground = StyleCache.NO_COLOR;
 		private boolean lastStrikeout;
 
 		private final List<Tag> tagStack = new ArrayList<>();
-		private StyleRange currentStyleRange;
-		private final List<StyleRange> styleRanges = new ArrayList<>();
+		private final List<Run> runs = new ArrayList<>();
 		private final StringBuilder plainText = new StringBuilder();
-		private final Font defaultFont;
-
-		public MarkupHandler(final Font defaultFont) {
-			this.defaultFont = defaultFont;
-		}
-
-		public List<StyleRange> getStyleRanges() {
-			return styleRanges;
-		}
 
-		public String getPlaintText() {
-			return plainText.toString();
+		public CompiledMarkup getCompiledMarkup() {
+			return new CompiledMarkup(plainText.toString(), runs.toArray(new Run[runs.size()]));
 		}
 
 		@Override
-		public void startElement(final String uri, final String localName, final String qName, final Attributes attributes)
-				throws SAXException {
-			final Tag t = getTag(qName);
+		public void startElement(final String name, final Map<String, String> attributes, final int offset) throws ParseException {
+			final Tag t = getTag(name, offset);
 
 			if (tagStack.contains(t)) {
-				throw new SAXException("Close tag <" + t + "> before open a new one.");
+				throw new ParseException("Close tag <" + t + "> before open a new one.", offset);
 			}
 
 			if (t == Tag.BODY) {
-				font = defaultFont;
-				fontStyle = font == null ? SWT.NONE : font.getFontData()[0].getStyle();
+				fontStyle = SWT.NONE;
 				fontHeight = 0;
 				fontName = null;
 				underline = false;
@@ -103,7 +77,7 @@ public class HtmlMarkupParser implements IMarkupParser {
 			}
 
 			if (t == Tag.BR) {
-				styleRanges.add(new StyleRange(plainText.length(), 1, null, null));
+				runs.add(new Run(plainText.length()));
 				plainText.append('\n');
 				return;
 			}
@@ -117,16 +91,16 @@ public class HtmlMarkupParser implements IMarkupParser {
 			} else if (t == Tag.S)
 				strikeout = true;
 			else if (t == Tag.SUB) {
-				if (superscript) throw new SAXException("Close tag <SUP> before open SUB>.");
+				if (superscript) throw new ParseException("Close tag <SUP> before open SUB>.", offset);
 				subscript = true;
 			} else if (t == Tag.SUP) {
-				if (subscript) throw new SAXException("Close tag <SUB> before open SUP>.");
+				if (subscript) throw new ParseException("Close tag <SUB> before open SUP>.", offset);
 				superscript = true;
 			} else if (t == Tag.STYLE) {
-				foreground = getRGB(attributes.getValue("fg"));
-				background = getRGB(attributes.getValue("bg"));
-				fontHeight = getSize(attributes.getValue("size"));
-				fontName = attributes.getValue("font");
+				foreground = getRGB(attributes.get("fg"), offset);
+				background = getRGB(attributes.get("bg"), offset);
+				fontHeight = getSize(attributes.get("size"), offset);
+				fontName = attributes.get("font");
 			}
 
 			if (t == Tag.A) {
@@ -134,8 +108,8 @@ public class HtmlMarkupParser implements IMarkupParser {
 				lastForeground = foreground;
 				lastStrikeout = strikeout;
 				underline = true;
-				foreground = Display.getCurrent().getSystemColor(SWT.COLOR_LINK_FOREGROUND).getRGB();
-				link = Objects.toString(attributes.getValue("href"), "");
+				foreground = CompiledMarkup.LINK_COLOR;
+				link = Objects.toString(attributes.get("href"), "");
 			} else {
 				link = null;
 			}
@@ -143,33 +117,26 @@ public class HtmlMarkupParser implements IMarkupParser {
 			tagStack.add(t);
 		}
 
-		private static Tag getTag(final String qName) throws SAXException {
+		private static Tag getTag(final String name, final int offset) throws ParseException {
 			try {
-				return Tag.valueOf(qName.toUpperCase());
+				return Tag.valueOf(name.toUpperCase());
 			} catch (final IllegalArgumentException e) {
-				throw new SAXException("Unknown tag <" + qName.toUpperCase() + ">");
+				throw new ParseException("Unknown tag <" + name.toUpperCase() + ">", offset);
 			}
 		}
 
 		@Override
-		public void characters(final char[] ch, final int start, final int length) throws SAXException {
-			currentStyleRange = link == null ? new StyleRange() : new Anchor(link.length() == 0 ? new String(ch, start, length) : link);
-			currentStyleRange.start = plainText.length();
-			currentStyleRange.underline = underline;
-			currentStyleRange.strikeout = strikeout;
-			currentStyleRange.font = getFont();
-			currentStyleRange.foreground = getColor(foreground);
-			currentStyleRange.background = getColor(background);
-			currentStyleRange.length = length;
-			currentStyleRange.rise = getRise();
-			styleRanges.add(currentStyleRange);
-
-			plainText.append(ch, start, length);
+		public void characters(final CharSequence text) {
+			final String href = link == null ? null : link.length() == 0 ? text.toString() : link;
+
+			runs.add(new Run(plainText.length(), text.length(), false, fontName, fontHeight, fontStyle, subscript, superscript, underline,
+					strikeout, foreground, background, href));
+			plainText.append(text);
 		}
 
 		@Override
-		public void endElement(final String uri, final String localName, final String qName) throws SAXException {
-			final Tag t = getTag(qName);
+		public void endElement(final String name, final int offset) throws ParseException {
+			final Tag t = getTag(name, offset);
 
 			if (t == Tag.BR) {
 				return;
@@ -188,8 +155,8 @@ public class HtmlMarkupParser implements IMarkupParser {
 			else if (t == Tag.SUP) {
 				superscript = false;
 			} else if (t == Tag.STYLE) {
-				foreground = null;
-				background = null;
+				foreground = StyleCache.NO_COLOR;
+				background = StyleCache.NO_COLOR;
 				fontHeight = 0;
 				fontName = null;
 			} else if (t == Tag.A) {
@@ -202,66 +169,18 @@ public class HtmlMarkupParser implements IMarkupParser {
 			tagStack.remove(tagStack.size() - 1);
 		}
 
-		private static RGB getRGB(final String color) throws SAXException {
-			if (color == null) return null;
-			if (!color.matches("#[0-9A-Fa-f]{0,6}")) throw new SAXException("invalid color value");
-
-			return Util.hexToRGB(color);
-		}
-
-		private static Color getColor(final RGB rgb) {
-			final ColorRegistry colorRegistry = JFaceResources.getColorRegistry();
-			final String name = String.valueOf(rgb);
-
-			if (rgb != null && !colorRegistry.hasValueFor(name)) {
-				colorRegistry.put(name, rgb);
-			}
-
-			return colorRegistry.get(name);
-		}
-
-		private Font getFont() {
-			final FontData fontData;
-
-			if (fontName != null) {
-				fontData = new FontData(fontName, getFontHeight(), fontStyle);
-			} else {
-				fontData = getDefaultFontData();
-				fontData.setStyle(fontStyle);
-				fontData.setHeight(getFontHeight());
-			}
-
-			final String name = fontData.toString();
-			final FontRegistry fontRegistry = JFaceResources.getFontRegistry();
-
-			if (!fontRegistry.hasValueFor(name)) {
-				fontRegistry.put(name, new FontData[] { fontData });
-			}
-
-			return fontRegistry.get(name);
-		}
-
-		private int getFontHeight() {
-			final FontData fontData = getDefaultFontData();
-			final int height = fontHeight == 0 ? fontData.getHeight() : fontHeight;
-
-			return subscript || superscript ? (int) (height * 0.6f) : height;
-		}
-
-		private FontData getDefaultFontData() {
-			final FontRegistry fontRegistry = JFaceResources.getFontRegistry();
-			return Optional.ofNullable(font).orElse(fontRegistry.defaultFont()).getFontData()[0];
-		}
+		private static int getRGB(final String color, final int offset) throws ParseException {
+			if (color == null) return StyleCache.NO_COLOR;
+			if (!color.matches("#[0-9A-Fa-f]{0,6}")) throw new ParseException("invalid color value", offset);
 
-		private int getRise() {
-			return superscript ? getFontHeight() - 1 : subscript ? -1 : 0;
+			return StyleCache.pack(Util.hexToRGB(color));
 		}
 
-		private static int getSize(final String size) throws SAXException {
+		private static int getSize(final String size, final int offset) throws ParseException {
 			try {
 				return size == null ? 0 : Integer.valueOf(size).intValue();
 			} catch (final NumberFormatException e) {
-				throw new SAXException(e);
+				throw new ParseException(e.toString(), offset);
 			}
 		}
 	}
@@ -277,25 +196,31 @@ public class HtmlMarkupParser implements IMarkupParser {
 	 */
 	@Override
 	public void parse(final String markup) throws ParseException {
-		final MarkupHandler handler = new MarkupHandler(getDefaultFont());
-
 		styleRanges = Collections.emptyList();
 		plainText = markup;
 
-		try {
-			final String html = "<body>" + markup + "</body>";
-			final SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
-			parser.parse(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), handler);
+		final Display display = Display.getCurrent();
+		if (display == null) SWT.error(SWT.ERROR_THREAD_INVALID_ACCESS);
 
-			styleRanges = handler.getStyleRanges();
-			plainText = handler.getPlaintText();
+		final ParsedMarkup parsedMarkup = compile(markup).bind(display, getDefaultFont());
 
-		} catch (IOException | ParserConfigurationException e) {
-			throw new IllegalStateException(e);
+		styleRanges = Arrays.asList(parsedMarkup.styleRanges);
+		plainText = parsedMarkup.getPlainText();
+	}
 
-		} catch (final SAXException e) {
-			throw new ParseException(e.getMessage(), 0);
-		}
+	/*
+	 * (non-Javadoc)
+	 * @see org.greip.markup.ICompilingMarkupParser#compile(java.lang.String)
+	 */
+	@Override
+	public CompiledMarkup compile(final String markup) throws ParseException {
+		final MarkupHandler handler = new MarkupHandler();
+
+		handler.startElement(Tag.BODY.name(), Collections.emptyMap(), 0);
+		new MarkupTokenizer(markup, handler).tokenize();
+		handler.endElement(Tag.BODY.name(), markup.length());
+
+		return handler.getCompiledMarkup();
 	}
 
 	/*
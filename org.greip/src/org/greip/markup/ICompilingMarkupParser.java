@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.text.ParseException;
+
+/**
+ * A markup parser which can compile markup independent of a display, so markup
+ * can be parsed in a background thread.
+ *
+ * @see MarkupCache#compile(ICompilingMarkupParser, String)
+ *
+ * @author Thomas Lorbeer
+ */
+public interface ICompilingMarkupParser extends IMarkupParser {
+
+	/**
+	 * Compiles the markup into a display independent model, which can be bound
+	 * to fonts and colors later on the user interface thread. This method may be
+	 * called from any thread and must not depend on the state of the parser.
+	 *
+	 * @param markup
+	 *        the markup text
+	 *
+	 * @return the compiled markup
+	 *
+	 * @throws ParseException
+	 *         if the markup is not well-formed or contains unknown tags
+	 */
+	CompiledMarkup compile(String markup) throws ParseException;
+}
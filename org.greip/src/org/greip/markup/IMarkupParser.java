@@ -12,7 +12,6 @@ import java.text.ParseException;
 
 import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.graphics.Font;
-import org.xml.sax.SAXException;
 
 /**
  *
@@ -23,7 +22,8 @@ public interface IMarkupParser {
 	/**
 	 * Parse the content and build the list of style ranges.
 	 *
-	 * @throws SAXException
+	 * @throws ParseException
+	 *         if the markup is not well-formed or contains unknown tags
 	 */
 	void parse(String markup) throws ParseException;
 
@@ -34,4 +34,17 @@ public interface IMarkupParser {
 	Font getDefaultFont();
 
 	void setDefaultFont(Font defaultFont);
+
+	/**
+	 * Returns the key under which the {@link MarkupCache} shares the results of
+	 * the parser. Parsers with equal keys must return the same result for the
+	 * same markup and default font. The default key is the class of the parser,
+	 * parsers with further settings which affect the result must include them
+	 * in the key.
+	 *
+	 * @return the key
+	 */
+	default Object getCacheKey() {
+		return getClass();
+	}
 }
\ No newline at end of file
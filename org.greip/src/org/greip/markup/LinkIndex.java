@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.graphics.TextLayout;
+import org.eclipse.swt.graphics.TextStyle;
+
+/**
+ * A spatial index of the links of a text layout. Each link is split into one
+ * rectangle per wrapped line. The rectangles are sorted into horizontal
+ * buckets with the height of the smallest line, so a lookup has only to check
+ * the few rectangles of one bucket.
+ *
+ * @author Thomas Lorbeer
+ */
+final class LinkIndex {
+
+	private static final class Fragment {
+
+		private final Rectangle bounds;
+		private final Anchor anchor;
+
+		Fragment(final Rectangle bounds, final Anchor anchor) {
+			this.bounds = bounds;
+			this.anchor = anchor;
+		}
+	}
+
+	private static final Fragment[] NO_FRAGMENTS = new Fragment[0];
+
+	private final int bucketHeight;
+	private final Fragment[][] buckets;
+
+	private LinkIndex(final int bucketHeight, final Fragment[][] buckets) {
+		this.bucketHeight = bucketHeight;
+		this.buckets = buckets;
+	}
+
+	/**
+	 * Creates the index for all links of the text layout.
+	 *
+	 * @param layout
+	 *        the text layout
+	 *
+	 * @return the index
+	 */
+	static LinkIndex create(final TextLayout layout) {
+		final List<Fragment> fragments = createFragments(layout);
+
+		if (fragments.isEmpty()) {
+			return new LinkIndex(1, new Fragment[0][]);
+		}
+
+		int bucketHeight = Integer.MAX_VALUE;
+		for (int i = 0; i < layout.getLineCount(); i++) {
+			bucketHeight = Math.min(bucketHeight, layout.getLineBounds(i).height);
+		}
+		bucketHeight = Math.max(1, bucketHeight);
+
+		final int bucketCount = layout.getBounds().height / bucketHeight + 1;
+		final List<List<Fragment>> bucketLists = new ArrayList<>(bucketCount);
+
+		for (int i = 0; i < bucketCount; i++) {
+			bucketLists.add(new ArrayList<>(2));
+		}
+
+		for (final Fragment fragment : fragments) {
+			final int first = Math.max(0, fragment.bounds.y / bucketHeight);
+			final int last = Math.min(bucketCount - 1, (fragment.bounds.y + fragment.bounds.height - 1) / bucketHeight);
+
+			for (int i = first; i <= last; i++) {
+				bucketLists.get(i).add(fragment);
+			}
+		}
+
+		final Fragment[][] buckets = new Fragment[bucketCount][];
+		for (int i = 0; i < bucketCount; i++) {
+			final List<Fragment> list = bucketLists.get(i);
+			buckets[i] = list.isEmpty() ? NO_FRAGMENTS : list.toArray(new Fragment[list.size()]);
+		}
+
+		return new LinkIndex(bucketHeight, buckets);
+	}
+
+	private static List<Fragment> createFragments(final TextLayout layout) {
+		final List<Fragment> fragments = new ArrayList<>();
+		final TextStyle[] styles = layout.getStyles();
+		final int[] ranges = layout.getRanges();
+		final int[] lineOffsets = layout.getLineOffsets();
+
+		for (int i = 0; i < styles.length; i++) {
+			if (styles[i] instanceof Anchor) {
+				final int start = ranges[i * 2];
+				final int end = ranges[i * 2 + 1];
+				final int firstLine = layout.getLineIndex(start);
+				final int lastLine = layout.getLineIndex(end);
+
+				for (int line = firstLine; line <= lastLine; line++) {
+					final int fragmentStart = Math.max(start, lineOffsets[line]);
+					final int fragmentEnd = Math.min(end, lineOffsets[line + 1] - 1);
+
+					if (fragmentStart <= fragmentEnd) {
+						fragments.add(new Fragment(layout.getBounds(fragmentStart, fragmentEnd), (Anchor) styles[i]));
+					}
+				}
+			}
+		}
+
+		return fragments;
+	}
+
+	/**
+	 * Returns the link at the specified location.
+	 *
+	 * @param x
+	 *        the x coordinate relative to the text layout
+	 * @param y
+	 *        the y coordinate relative to the text layout
+	 *
+	 * @return the link or <code>null</code> if there is no link at this
+	 *         location
+	 */
+	Anchor getLinkAt(final int x, final int y) {
+		final int bucket = y < 0 ? -1 : y / bucketHeight;
+
+		if (bucket >= 0 && bucket < buckets.length) {
+			for (final Fragment fragment : buckets[bucket]) {
+				if (fragment.bounds.contains(x, y)) {
+					return fragment.anchor;
+				}
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.text.ParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * A bounded least recently used cache of parsed markup texts. There is one
+ * cache per display, shared by all widgets which display markup text. Entries
+ * are keyed by the cache key of the parser, markup text and default font.
+ * <p>
+ * The cache must be accessed from the user interface thread only, except
+ * {@link #compile(ICompilingMarkupParser, String)}, which allows to compile markup in
+ * a background thread. Only the binding of fonts and colors is left to the
+ * user interface thread then.
+ * </p>
+ *
+ * @see IMarkupParser#getCacheKey()
+ *
+ * @author Thomas Lorbeer
+ */
+public final class MarkupCache {
+
+	private static final String DATA_KEY = MarkupCache.class.getName();
+	private static final int DEFAULT_MAXIMUM_SIZE = 500;
+
+	private static final class Key {
+
+		private final Object parserKey;
+		private final String markup;
+		private final Font font;
+		private final int hashCode;
+
+		Key(final IMarkupParser parser, final String markup, final Font font) {
+			this.parserKey = parser.getCacheKey();
+			this.markup = markup;
+			this.font = font;
+			this.hashCode = Objects.hash(parserKey, markup, font);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof Key)) return false;
+
+			final Key other = (Key) obj;
+			return parserKey.equals(other.parserKey) && markup.equals(other.markup) && Objects.equals(font, other.font);
+		}
+	}
+
+	private final Map<Key, ParsedMarkup> entries = new LinkedHashMap<>(64, 0.75f, true);
+	private final Map<Key, CompiledMarkup> compiledEntries = new LinkedHashMap<>(64, 0.75f, true);
+	private final Display display;
+	// read by compile in background threads
+	private volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	private MarkupCache(final Display display) {
+		this.display = display;
+	}
+
+	/**
+	 * Returns the cache of the specified display. The cache is created on first
+	 * access and cleared when the display is disposed.
+	 *
+	 * @param display
+	 *        the display
+	 *
+	 * @return the cache
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the display is null</li>
+	 *            </ul>
+	 */
+	public static MarkupCache getInstance(final Display display) {
+		if (display == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		MarkupCache cache = (MarkupCache) display.getData(DATA_KEY);
+
+		if (cache == null) {
+			final MarkupCache newCache = new MarkupCache(display);
+			display.setData(DATA_KEY, newCache);
+			display.disposeExec(newCache::clear);
+			cache = newCache;
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Returns the parsed markup from cache or parses the markup with the
+	 * specified parser, if the cache contains no entry for the cache key of the
+	 * parser, markup and the parsers default font. Markup compiled in advance by
+	 * {@link #compile(ICompilingMarkupParser, String)} is only bound to fonts and colors,
+	 * the compiled markup is replaced by the result then.
+	 * Adjacent style ranges with equal attributes are merged before caching.
+	 * Markup with parse errors is never cached.
+	 *
+	 * @param parser
+	 *        the parser
+	 * @param markup
+	 *        the markup text
+	 *
+	 * @return the parsed markup
+	 *
+	 * @throws ParseException
+	 *         if the markup cannot be parsed
+	 */
+	public ParsedMarkup get(final IMarkupParser parser, final String markup) throws ParseException {
+		final Key key = new Key(parser, markup, parser.getDefaultFont());
+		ParsedMarkup parsedMarkup = entries.get(key);
+
+		if (parsedMarkup != null) {
+			hitCount.incrementAndGet();
+			return parsedMarkup;
+		}
+
+		missCount.incrementAndGet();
+		final CompiledMarkup compiledMarkup = removeCompiled(new Key(parser, markup, null));
+
+		if (compiledMarkup == null) {
+			parser.parse(markup);
+			parsedMarkup = new ParsedMarkup(parser.getPlainText(), StyleRangeCompactor.compact(parser.getStyleRanges()));
+		} else {
+			final ParsedMarkup boundMarkup = compiledMarkup.bind(display, parser.getDefaultFont());
+			parsedMarkup = new ParsedMarkup(boundMarkup.getPlainText(), StyleRangeCompactor.compact(boundMarkup.styleRanges));
+		}
+
+		if (maximumSize > 0) {
+			entries.put(key, parsedMarkup);
+			trimToSize(entries, maximumSize);
+		}
+
+		return parsedMarkup;
+	}
+
+	/**
+	 * Compiles the markup with the specified parser and keeps the result until
+	 * the markup is requested by {@link #get(IMarkupParser, String)}, which
+	 * binds and removes it. This method may be called from any thread.
+	 *
+	 * @param parser
+	 *        the parser
+	 * @param markup
+	 *        the markup text
+	 *
+	 * @return the compiled markup
+	 *
+	 * @throws ParseException
+	 *         if the markup cannot be parsed
+	 */
+	public CompiledMarkup compile(final ICompilingMarkupParser parser, final String markup) throws ParseException {
+		final Key key = new Key(parser, markup, null);
+		CompiledMarkup compiledMarkup = getCompiled(key);
+
+		if (compiledMarkup == null) {
+			compiledMarkup = parser.compile(markup);
+
+			synchronized (compiledEntries) {
+				if (maximumSize > 0) {
+					compiledEntries.put(key, compiledMarkup);
+					trimToSize(compiledEntries, maximumSize);
+				}
+			}
+		}
+
+		return compiledMarkup;
+	}
+
+	private CompiledMarkup getCompiled(final Key key) {
+		synchronized (compiledEntries) {
+			return compiledEntries.isEmpty() ? null : compiledEntries.get(key);
+		}
+	}
+
+	private CompiledMarkup removeCompiled(final Key key) {
+		synchronized (compiledEntries) {
+			return compiledEntries.isEmpty() ? null : compiledEntries.remove(key);
+		}
+	}
+
+	/**
+	 * Returns the maximum count of entries.
+	 *
+	 * @return the maximum size
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Sets the maximum count of entries. The least recently used entries are
+	 * removed, if the cache contains more entries. The default is 500, zero
+	 * disables caching.
+	 *
+	 * @param maximumSize
+	 *        the maximum size
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the size is less than
+	 *            zero</li>
+	 *            </ul>
+	 */
+	public void setMaximumSize(final int maximumSize) {
+		if (maximumSize < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		trimToSize(entries, maximumSize);
+
+		synchronized (compiledEntries) {
+			this.maximumSize = maximumSize;
+			trimToSize(compiledEntries, maximumSize);
+		}
+	}
+
+	/**
+	 * Returns the current count of entries.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns how many times a parsed markup was found in the cache.
+	 *
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * Returns how many times a markup has to be parsed.
+	 *
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Removes all entries and resets the hit and miss counters.
+	 */
+	public void clear() {
+		entries.clear();
+
+		synchronized (compiledEntries) {
+			compiledEntries.clear();
+		}
+
+		hitCount.set(0);
+		missCount.set(0);
+	}
+
+	private static void trimToSize(final Map<Key, ?> map, final int maximumSize) {
+		final Iterator<Key> iterator = map.keySet().iterator();
+
+		while (map.size() > maximumSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+	}
+}
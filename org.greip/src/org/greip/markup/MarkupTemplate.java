@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
+
+/**
+ * A markup text with placeholders of the form <code>${name}</code>, e.g.
+ * <code>&lt;b&gt;CPU&lt;/b&gt; ${value}</code>. The template is parsed once,
+ * values are spliced into the plain text of the parsed template and the style
+ * ranges are shifted accordingly, so changing a value requires no parsing.
+ * Values are inserted as plain text, markup characters in values have no
+ * special meaning.
+ * <p>
+ * A value takes the style of the first character of its placeholder.
+ * </p>
+ *
+ * @author Thomas Lorbeer
+ */
+public final class MarkupTemplate {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)\\}"); //$NON-NLS-1$
+
+	private static final class Placeholder {
+
+		private final int start;
+		private final int end;
+		private final String name;
+
+		Placeholder(final int start, final int end, final String name) {
+			this.start = start;
+			this.end = end;
+			this.name = name;
+		}
+	}
+
+	private final String markup;
+	private String lastPlainText;
+	private Placeholder[] placeholders;
+
+	/**
+	 * Creates a new template.
+	 *
+	 * @param markup
+	 *        the markup text with placeholders
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the markup is null</li>
+	 *            </ul>
+	 */
+	public MarkupTemplate(final String markup) {
+		if (markup == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		this.markup = markup;
+	}
+
+	/**
+	 * Returns the markup text with placeholders.
+	 *
+	 * @return the markup text
+	 */
+	public String getMarkup() {
+		return markup;
+	}
+
+	/**
+	 * Replaces the placeholders of the parsed template by the specified values.
+	 * Placeholders without value are replaced by an empty string.
+	 *
+	 * @param parsedTemplate
+	 *        the result of parsing the template markup
+	 * @param values
+	 *        the values by placeholder name
+	 *
+	 * @return the parsed markup with the values inserted
+	 */
+	public ParsedMarkup apply(final ParsedMarkup parsedTemplate, final Map<String, String> values) {
+		final Placeholder[] placeholders = getPlaceholders(parsedTemplate.getPlainText());
+
+		if (placeholders.length == 0) {
+			return parsedTemplate;
+		}
+
+		final String plainText = parsedTemplate.getPlainText();
+		final StringBuilder text = new StringBuilder(plainText.length() + 16 * placeholders.length);
+		final int[] valueEnds = new int[placeholders.length];
+		int offset = 0;
+
+		for (int i = 0; i < placeholders.length; i++) {
+			final Placeholder placeholder = placeholders[i];
+
+			text.append(plainText, offset, placeholder.start);
+			text.append(Objects.toString(values.get(placeholder.name), "")); //$NON-NLS-1$
+			valueEnds[i] = text.length();
+			offset = placeholder.end;
+		}
+		text.append(plainText, offset, plainText.length());
+
+		final StyleRange[] styleRanges = parsedTemplate.styleRanges;
+		final List<StyleRange> newRanges = new ArrayList<>(styleRanges.length);
+
+		for (final StyleRange range : styleRanges) {
+			final int start = shift(range.start, placeholders, valueEnds);
+			final int end = shift(range.start + range.length, placeholders, valueEnds);
+
+			if (end > start) {
+				final StyleRange newRange = (StyleRange) range.clone();
+				newRange.start = start;
+				newRange.length = end - start;
+				newRanges.add(newRange);
+			}
+		}
+
+		return new ParsedMarkup(text.toString(), newRanges.toArray(new StyleRange[newRanges.size()]));
+	}
+
+	private static int shift(final int offset, final Placeholder[] placeholders, final int[] valueEnds) {
+		int delta = 0;
+
+		for (int i = 0; i < placeholders.length && offset > placeholders[i].start; i++) {
+			if (offset < placeholders[i].end) {
+				return valueEnds[i];
+			}
+			delta = valueEnds[i] - placeholders[i].end;
+		}
+
+		return offset + delta;
+	}
+
+	private Placeholder[] getPlaceholders(final String plainText) {
+		if (plainText != lastPlainText) {
+			final List<Placeholder> list = new ArrayList<>();
+			final Matcher matcher = PLACEHOLDER.matcher(plainText);
+
+			while (matcher.find()) {
+				list.add(new Placeholder(matcher.start(), matcher.end(), matcher.group(1)));
+			}
+
+			placeholders = list.toArray(new Placeholder[list.size()]);
+			lastPlainText = plainText;
+		}
+
+		return placeholders;
+	}
+}
@@ -16,48 +16,91 @@ import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.graphics.TextLayout;
 import org.eclipse.swt.graphics.TextStyle;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Listener;
 import org.greip.common.Greip;
-import org.greip.common.Util;
 
 public class MarkupText {
 
+	private static final String ELLIPSIS = "..."; //$NON-NLS-1$
+
 	private final Device device;
 	private int alignment = SWT.LEFT;
 	private final Map<Point, String> links = new HashMap<>();
+	private LinkIndex linkIndex;
 	private Font font;
 	private Color foreground;
 	private boolean wrap = true;
 	private Optional<Consumer<ParseException>> exceptionHandler = Optional.empty();
 	private final TextLayout textLayout;
 	private final IMarkupParser parser;
+	private final Control control;
+	private final Listener disposeListener = e -> dispose();
 
 	public MarkupText(final Control control, final IMarkupParser parser) {
 		this.device = control.getDisplay();
+		this.control = control;
 		this.parser = parser;
 		this.textLayout = new TextLayout(device);
 
-		control.addListener(SWT.Dispose, e -> textLayout.dispose());
+		control.addListener(SWT.Dispose, disposeListener);
+	}
+
+	/**
+	 * Disposes the text layout. Must be called if the instance is no longer
+	 * needed before the control has been disposed.
+	 */
+	public void dispose() {
+		if (!control.isDisposed()) {
+			control.removeListener(SWT.Dispose, disposeListener);
+		}
+		textLayout.dispose();
+	}
+
+	public boolean isDisposed() {
+		return textLayout.isDisposed();
 	}
 
 	public void layout(final String markupText, final int maxWidth, final int maxHeight) {
-		textLayout.setWidth(maxWidth == SWT.DEFAULT ? SWT.DEFAULT : Math.max(maxWidth, 1));
-		textLayout.setAlignment(getAlignment());
-		textLayout.setJustify(getAlignment() == Greip.JUSTIFY);
-		links.clear();
+		layout(getParsedMarkup(markupText), maxWidth, maxHeight);
+	}
 
-		String plainText;
+	/**
+	 * Layouts the markup template with the specified placeholder values. The
+	 * template itself is parsed once, changed values are only inserted into the
+	 * parsed template.
+	 *
+	 * @param template
+	 *        the markup template
+	 * @param values
+	 *        the values by placeholder name
+	 * @param maxWidth
+	 *        the maximum width or <code>SWT.DEFAULT</code>
+	 * @param maxHeight
+	 *        the maximum height or <code>SWT.DEFAULT</code>
+	 */
+	public void layout(final MarkupTemplate template, final Map<String, String> values, final int maxWidth, final int maxHeight) {
+		layout(template.apply(getParsedMarkup(template.getMarkup()), values), maxWidth, maxHeight);
+	}
+
+	private ParsedMarkup getParsedMarkup(final String markupText) {
 		try {
 			parser.setDefaultFont(getFont());
-			parser.parse(markupText);
-			plainText = parser.getPlainText();
+			return MarkupCache.getInstance(control.getDisplay()).get(parser, markupText);
 
 		} catch (final ParseException e) {
 			exceptionHandler.ifPresent(c -> c.accept(e));
-			plainText = markupText;
+			return new ParsedMarkup(markupText, new StyleRange[0]);
 		}
+	}
+
+	private void layout(final ParsedMarkup parsedMarkup, final int maxWidth, final int maxHeight) {
+		textLayout.setWidth(maxWidth == SWT.DEFAULT ? SWT.DEFAULT : Math.max(maxWidth, 1));
+		textLayout.setAlignment(getAlignment());
+		textLayout.setJustify(getAlignment() == Greip.JUSTIFY);
+		links.clear();
 
-		final StyleRange[] styleRanges = parser.getStyleRanges();
-		applyTextAndStyles(plainText, styleRanges, false);
+		final StyleRange[] styleRanges = parsedMarkup.styleRanges;
+		applyTextAndStyles(parsedMarkup.getPlainText(), styleRanges, false);
 
 		final int lineCount = textLayout.getLineCount();
 
@@ -76,14 +119,55 @@ public class MarkupText {
 
 	private void shortenToVisibleLines(final StyleRange[] styleRanges, final int lines) {
 		final String plainText = textLayout.getText();
-		final String text = plainText.substring(0, Math.min(plainText.length(), textLayout.getLineOffsets()[lines] + 20));
-		final StringBuilder buf = new StringBuilder(text).append("...");
+		final int[] lineOffsets = textLayout.getLineOffsets();
+		final String text = plainText.substring(0, Math.min(plainText.length(), lineOffsets[lines] + 20));
+
+		// binary search for the longest prefix which fits together with the
+		// ellipsis into the visible lines, starting at the last visible line
+		int low = 0;
+		int high = text.length() - 1;
+		int cutIndex = -1;
+
+		if (lines > 0 && lineOffsets[lines - 1] <= high) {
+			final int lastLineOffset = lineOffsets[lines - 1];
+
+			if (isVisible(text.substring(0, lastLineOffset) + ELLIPSIS, styleRanges, lines)) {
+				cutIndex = lastLineOffset;
+				low = lastLineOffset + 1;
+			} else {
+				high = lastLineOffset - 1;
+			}
+		}
+
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+
+			if (isVisible(text.substring(0, mid) + ELLIPSIS, styleRanges, lines)) {
+				cutIndex = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+
+		if (cutIndex >= 0) {
+			final String shortenedText = text.substring(0, cutIndex) + ELLIPSIS;
+
+			if (!shortenedText.equals(textLayout.getText())) {
+				applyTextAndStyles(shortenedText, styleRanges, true);
+			}
+		} else {
+			String ellipsis = ELLIPSIS;
+
+			do {
+				ellipsis = ellipsis.substring(1);
+			} while (!isVisible(ellipsis, styleRanges, lines) && !ellipsis.isEmpty());
+		}
+	}
 
-		do {
-			final int index = buf.length() - Math.min(4, buf.length());
-			buf.deleteCharAt(index);
-			applyTextAndStyles(buf.toString(), styleRanges, true);
-		} while (textLayout.getLineCount() > lines && buf.length() > 0);
+	private boolean isVisible(final String text, final StyleRange[] styleRanges, final int lines) {
+		applyTextAndStyles(text, styleRanges, true);
+		return textLayout.getLineCount() <= lines;
 	}
 
 	private int getVisibleLines(final int maxHeight) {
@@ -101,25 +185,35 @@ public class MarkupText {
 
 	private void applyTextAndStyles(final String text, final StyleRange[] styleRanges, final boolean shorten) {
 		links.clear();
+		linkIndex = null;
 
 		textLayout.setText(text);
 		textLayout.setStyle(new TextStyle(getFont(), getForeground(), null), 0, text.length());
 
 		for (final StyleRange range : styleRanges) {
 			if (range.start < text.length() - (shorten ? 3 : 0)) {
-				range.foreground = Util.nvl(range.foreground, getForeground());
-				textLayout.setStyle(range, range.start, Math.min(range.start + range.length - 1, text.length() - (shorten ? 4 : 1)));
+				textLayout.setStyle(withDefaultForeground(range), range.start,
+						Math.min(range.start + range.length - 1, text.length() - (shorten ? 4 : 1)));
 
 				if (range instanceof Anchor) {
-					final Anchor anchor = (Anchor) range;
-
-					links.put(new Point(range.start, range.length), anchor.href);
-					range.data = anchor.href;
+					links.put(new Point(range.start, range.length), ((Anchor) range).href);
 				}
 			}
 		}
 	}
 
+	private StyleRange withDefaultForeground(final StyleRange range) {
+		if (range.foreground != null || getForeground() == null) {
+			return range;
+		}
+
+		// style ranges are shared by the markup cache and must not be modified
+		final StyleRange style = (StyleRange) range.clone();
+		style.foreground = getForeground();
+
+		return style;
+	}
+
 	public int getAlignment() {
 		return alignment;
 	}
@@ -158,26 +252,35 @@ public class MarkupText {
 
 	public void setOrientation(final int orientation) {
 		textLayout.setOrientation(orientation);
+		linkIndex = null;
 	}
 
 	public Map<Point, String> getLinks() {
 		return links;
 	}
 
+	/**
+	 * Returns the link at the specified location. The link rectangles are
+	 * computed once per layout.
+	 *
+	 * @param x
+	 *        the x coordinate relative to the text layout
+	 * @param y
+	 *        the y coordinate relative to the text layout
+	 *
+	 * @return the link or <code>null</code> if there is no link at this
+	 *         location
+	 */
 	public Anchor getLinkAtLocation(final int x, final int y) {
-		final TextStyle[] styles = textLayout.getStyles();
-		final int[] ranges = textLayout.getRanges();
-
-		for (int i = 0; i < styles.length; i++) {
-			if (styles[i] instanceof Anchor) {
-				final Rectangle bounds = textLayout.getBounds(ranges[i * 2], ranges[i * 2 + 1]);
-				if (bounds.contains(x, y)) {
-					return (Anchor) styles[i];
-				}
-			}
+		if (links.isEmpty()) {
+			return null;
+		}
+
+		if (linkIndex == null) {
+			linkIndex = LinkIndex.create(textLayout);
 		}
 
-		return null;
+		return linkIndex.getLinkAt(x, y);
 	}
 
 	public TextLayout getTextLayout() {
@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single pass tokenizer for the XML subset used by the markup parsers. The
+ * tokenizer reads the markup directly from a {@link CharSequence} and reports
+ * start tags, end tags and text to a {@code TokenHandler}. It checks the
+ * markup for well-formedness (matching end tags, quoted attributes, valid
+ * entity references), supports the predefined XML entities, character
+ * references, comments and CDATA sections and normalizes line breaks the same
+ * way an XML parser does.
+ *
+ * @author Thomas Lorbeer
+ */
+final class MarkupTokenizer {
+
+	/**
+	 * Receives the tokens found by the tokenizer.
+	 */
+	interface TokenHandler {
+
+		/**
+		 * Called for each start tag and each empty element tag.
+		 *
+		 * @param name
+		 *        the tag name
+		 * @param attributes
+		 *        the attributes of the tag, only valid during this call
+		 * @param offset
+		 *        the offset of the tag in the markup
+		 *
+		 * @throws ParseException
+		 */
+		void startElement(String name, Map<String, String> attributes, int offset) throws ParseException;
+
+		/**
+		 * Called for each end tag and each empty element tag.
+		 *
+		 * @param name
+		 *        the tag name
+		 * @param offset
+		 *        the offset of the tag in the markup
+		 *
+		 * @throws ParseException
+		 */
+		void endElement(String name, int offset) throws ParseException;
+
+		/**
+		 * Called for each text between two tags. Entity references are already
+		 * resolved.
+		 *
+		 * @param text
+		 *        the text, only valid during this call
+		 *
+		 * @throws ParseException
+		 */
+		void characters(CharSequence text) throws ParseException;
+	}
+
+	private static final String COMMENT_START = "<!--";
+	private static final String COMMENT_END = "-->";
+	private static final String CDATA_START = "<![CDATA[";
+	private static final String CDATA_END = "]]>";
+	// longer than any predefined entity or character reference without
+	// excessive leading zeros
+	private static final int MAX_REFERENCE_LENGTH = 32;
+
+	private final CharSequence markup;
+	private final int length;
+	private final TokenHandler handler;
+
+	private final StringBuilder text = new StringBuilder();
+	private final StringBuilder value = new StringBuilder();
+	private final Map<String, String> attributes = new LinkedHashMap<>();
+	private final Map<String, String> readOnlyAttributes = Collections.unmodifiableMap(attributes);
+	private final Deque<String> openElements = new ArrayDeque<>();
+
+	private int pos;
+
+	/**
+	 * Creates a new tokenizer.
+	 *
+	 * @param markup
+	 *        the markup to tokenize
+	 * @param handler
+	 *        the handler which receives the tokens
+	 */
+	MarkupTokenizer(final CharSequence markup, final TokenHandler handler) {
+		this.markup = markup;
+		this.length = markup.length();
+		this.handler = handler;
+	}
+
+	/**
+	 * Tokenizes the whole markup.
+	 *
+	 * @throws ParseException
+	 *         if the markup is not well-formed or the handler rejects a token
+	 */
+	void tokenize() throws ParseException {
+		pos = 0;
+		text.setLength(0);
+		openElements.clear();
+
+		while (pos < length) {
+			final char c = markup.charAt(pos);
+
+			if (c == '<') {
+				if (startsWith(COMMENT_START)) {
+					skipComment();
+				} else if (startsWith(CDATA_START)) {
+					readCData();
+				} else {
+					flushText();
+					if (startsWith("</")) {
+						readEndTag();
+					} else {
+						readStartTag();
+					}
+				}
+			} else if (c == '&') {
+				readReference(text);
+			} else {
+				pos = appendNormalized(text, pos);
+			}
+		}
+
+		flushText();
+
+		if (!openElements.isEmpty()) {
+			throw error("Element <" + openElements.peek() + "> must be terminated by the matching end-tag.", length);
+		}
+	}
+
+	private void flushText() throws ParseException {
+		if (text.length() > 0) {
+			handler.characters(text);
+			text.setLength(0);
+		}
+	}
+
+	private void skipComment() throws ParseException {
+		final int start = pos;
+		final int end = indexOf(COMMENT_END, pos + COMMENT_START.length());
+
+		if (end < 0) throw error("Comment is not terminated.", start);
+		pos = end + COMMENT_END.length();
+	}
+
+	private void readCData() throws ParseException {
+		final int start = pos;
+		final int end = indexOf(CDATA_END, pos + CDATA_START.length());
+
+		if (end < 0) throw error("CDATA section is not terminated.", start);
+
+		pos += CDATA_START.length();
+		while (pos < end) {
+			pos = appendNormalized(text, pos);
+		}
+		pos = end + CDATA_END.length();
+	}
+
+	private void readStartTag() throws ParseException {
+		final int start = pos++;
+		final String name = readName();
+
+		attributes.clear();
+
+		while (true) {
+			final boolean whitespace = skipWhitespace();
+			final char c = charAt(pos);
+
+			if (c == '>') {
+				pos++;
+				openElements.push(name);
+				handler.startElement(name, readOnlyAttributes, start);
+				return;
+
+			} else if (c == '/') {
+				pos++;
+				expect('>');
+				handler.startElement(name, readOnlyAttributes, start);
+				handler.endElement(name, start);
+				return;
+
+			} else if (!whitespace) {
+				throw error("Element <" + name + "> must be followed by attributes, \">\" or \"/>\".", pos);
+			}
+
+			readAttribute(name);
+		}
+	}
+
+	private void readAttribute(final String elementName) throws ParseException {
+		final int start = pos;
+		final String name = readName();
+
+		skipWhitespace();
+		expect('=');
+		skipWhitespace();
+
+		final char quote = charAt(pos);
+		if (quote != '"' && quote != '\'') throw error("Value of attribute \"" + name + "\" must be quoted.", pos);
+		pos++;
+
+		value.setLength(0);
+
+		while (true) {
+			final char c = charAt(pos);
+
+			if (c == quote) {
+				pos++;
+				break;
+			} else if (c == '<') {
+				throw error("Value of attribute \"" + name + "\" must not contain \"<\".", pos);
+			} else if (c == '&') {
+				readReference(value);
+			} else if (c == '\r' || c == '\n' || c == '\t') {
+				pos = c == '\r' && pos + 1 < length && markup.charAt(pos + 1) == '\n' ? pos + 2 : pos + 1;
+				value.append(' ');
+			} else {
+				value.append(c);
+				pos++;
+			}
+		}
+
+		if (attributes.put(name, value.toString()) != null) {
+			throw error("Attribute \"" + name + "\" was already specified for element <" + elementName + ">.", start);
+		}
+	}
+
+	private void readEndTag() throws ParseException {
+		final int start = pos;
+		pos += 2;
+
+		final String name = readName();
+		skipWhitespace();
+		expect('>');
+
+		if (openElements.isEmpty() || !openElements.peek().equals(name)) {
+			throw error(openElements.isEmpty() ? "Unexpected end-tag </" + name + ">."
+					: "Element <" + openElements.peek() + "> must be terminated by the matching end-tag.", start);
+		}
+
+		openElements.pop();
+		handler.endElement(name, start);
+	}
+
+	private void readReference(final StringBuilder buf) throws ParseException {
+		final int start = pos++;
+		final int limit = Math.min(length, pos + MAX_REFERENCE_LENGTH);
+		int end = pos;
+
+		while (end < limit && markup.charAt(end) != ';') {
+			end++;
+		}
+
+		if (end == limit || end == pos) throw error("Entity reference must be terminated by \";\".", start);
+
+		if (charAt(pos) == '#') {
+			buf.appendCodePoint(parseCharacterReference(start, end));
+		} else {
+			buf.append(resolveEntity(start, end));
+		}
+
+		pos = end + 1;
+	}
+
+	private int parseCharacterReference(final int start, final int end) throws ParseException {
+		final boolean hex = start + 2 < end && markup.charAt(start + 2) == 'x';
+		final int radix = hex ? 16 : 10;
+		int codePoint = 0;
+
+		if (start + (hex ? 3 : 2) == end) throw error("Invalid character reference.", start);
+
+		for (int i = start + (hex ? 3 : 2); i < end; i++) {
+			final int digit = Character.digit(markup.charAt(i), radix);
+
+			if (digit < 0 || codePoint > Character.MAX_CODE_POINT) throw error("Invalid character reference.", start);
+			codePoint = codePoint * radix + digit;
+		}
+
+		if (!isCharacter(codePoint)) throw error("Invalid character reference.", start);
+
+		return codePoint;
+	}
+
+	private char resolveEntity(final int start, final int end) throws ParseException {
+		final int len = end - start - 1;
+
+		if (regionMatches(start + 1, "lt", len)) return '<';
+		if (regionMatches(start + 1, "gt", len)) return '>';
+		if (regionMatches(start + 1, "amp", len)) return '&';
+		if (regionMatches(start + 1, "quot", len)) return '"';
+		if (regionMatches(start + 1, "apos", len)) return '\'';
+
+		throw error("Entity \"" + markup.subSequence(start + 1, end) + "\" is not defined.", start);
+	}
+
+	private String readName() throws ParseException {
+		final int start = pos;
+
+		if (!isNameStart(charAt(pos))) throw error("Invalid or missing name.", pos);
+
+		while (pos < length && isNamePart(markup.charAt(pos))) {
+			pos++;
+		}
+
+		return markup.subSequence(start, pos).toString();
+	}
+
+	private boolean skipWhitespace() {
+		final int start = pos;
+
+		while (pos < length && isWhitespace(markup.charAt(pos))) {
+			pos++;
+		}
+
+		return pos > start;
+	}
+
+	private void expect(final char c) throws ParseException {
+		if (charAt(pos) != c) throw error("\"" + c + "\" expected.", pos);
+		pos++;
+	}
+
+	private char charAt(final int index) throws ParseException {
+		if (index >= length) throw error("Unexpected end of markup.", length);
+		return markup.charAt(index);
+	}
+
+	private int appendNormalized(final StringBuilder buf, final int index) {
+		final char c = markup.charAt(index);
+
+		if (c == '\r') {
+			buf.append('\n');
+			return index + 1 < length && markup.charAt(index + 1) == '\n' ? index + 2 : index + 1;
+		}
+
+		buf.append(c);
+		return index + 1;
+	}
+
+	private boolean startsWith(final String prefix) {
+		return regionMatches(pos, prefix, prefix.length());
+	}
+
+	private boolean regionMatches(final int start, final String s, final int len) {
+		if (len != s.length() || start + len > length) return false;
+
+		for (int i = 0; i < len; i++) {
+			if (markup.charAt(start + i) != s.charAt(i)) return false;
+		}
+		return true;
+	}
+
+	private int indexOf(final String s, final int from) {
+		for (int i = from; i <= length - s.length(); i++) {
+			if (regionMatches(i, s, s.length())) return i;
+		}
+		return -1;
+	}
+
+	// surrogates are no characters on their own
+	private static boolean isCharacter(final int codePoint) {
+		return codePoint > 0 && Character.isValidCodePoint(codePoint)
+				&& (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE);
+	}
+
+	private static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	private static boolean isNameStart(final char c) {
+		return Character.isLetter(c) || c == '_' || c == ':';
+	}
+
+	private static boolean isNamePart(final char c) {
+		return isNameStart(c) || Character.isDigit(c) || c == '-' || c == '.';
+	}
+
+	private static ParseException error(final String message, final int offset) {
+		return new ParseException(message, offset);
+	}
+}
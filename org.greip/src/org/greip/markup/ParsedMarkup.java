@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import org.eclipse.swt.custom.StyleRange;
+
+/**
+ * Instances of this class hold the result of parsing a markup text: the plain
+ * text and the style ranges to apply. Instances are immutable and shared
+ * between all widgets using the same markup.
+ *
+ * @see MarkupCache
+ *
+ * @author Thomas Lorbeer
+ */
+public final class ParsedMarkup {
+
+	private final String plainText;
+	final StyleRange[] styleRanges;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param plainText
+	 *        the plain text
+	 * @param styleRanges
+	 *        the style ranges, the array is copied
+	 */
+	public ParsedMarkup(final String plainText, final StyleRange[] styleRanges) {
+		this.plainText = plainText;
+		this.styleRanges = styleRanges.clone();
+	}
+
+	/**
+	 * Returns the text without markup.
+	 *
+	 * @return the plain text
+	 */
+	public String getPlainText() {
+		return plainText;
+	}
+
+	/**
+	 * Returns a copy of the style ranges.
+	 *
+	 * @return the style ranges
+	 */
+	public StyleRange[] getStyleRanges() {
+		final StyleRange[] copy = new StyleRange[styleRanges.length];
+
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = (StyleRange) styleRanges[i].clone();
+		}
+
+		return copy;
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jface.resource.ColorRegistry;
+import org.eclipse.jface.resource.FontRegistry;
+import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Hands out the fonts and colors used by the markup parsers. Fonts are keyed
+ * by an interned font name id, the height and the style bits, colors by the
+ * packed RGB value, so no key strings have to be built while parsing. The
+ * resources itself are owned by the JFace font and color registries.
+ * <p>
+ * There is one cache per display, which must be accessed from the user
+ * interface thread only.
+ * </p>
+ *
+ * @author Thomas Lorbeer
+ */
+final class StyleCache {
+
+	/** The packed value which represents no color. */
+	static final int NO_COLOR = -1;
+
+	private static final String DATA_KEY = StyleCache.class.getName();
+
+	private final Map<String, Integer> fontNameIds = new HashMap<>();
+	private final Map<Long, Font> fonts = new HashMap<>();
+	private final Map<Integer, Color> colors = new HashMap<>();
+
+	private StyleCache() {
+	}
+
+	/**
+	 * Returns the cache of the specified display.
+	 *
+	 * @param display
+	 *        the display
+	 *
+	 * @return the cache
+	 */
+	static StyleCache getInstance(final Display display) {
+		StyleCache cache = (StyleCache) display.getData(DATA_KEY);
+
+		if (cache == null) {
+			final StyleCache newCache = new StyleCache();
+			display.setData(DATA_KEY, newCache);
+			display.disposeExec(newCache::clear);
+			cache = newCache;
+		}
+
+		return cache;
+	}
+
+	/**
+	 * Returns the id of the specified font name. The id is unique for the
+	 * lifetime of the cache.
+	 *
+	 * @param fontName
+	 *        the font name
+	 *
+	 * @return the id
+	 */
+	int getFontNameId(final String fontName) {
+		Integer id = fontNameIds.get(fontName);
+
+		if (id == null) {
+			id = Integer.valueOf(fontNameIds.size());
+			fontNameIds.put(fontName, id);
+		}
+
+		return id.intValue();
+	}
+
+	/**
+	 * Returns the shared font.
+	 *
+	 * @param fontNameId
+	 *        the id of the font name returned by {@link #getFontNameId(String)}
+	 * @param fontName
+	 *        the font name
+	 * @param height
+	 *        the font height in points
+	 * @param style
+	 *        the font style bits
+	 *
+	 * @return the font
+	 */
+	Font getFont(final int fontNameId, final String fontName, final int height, final int style) {
+		final Long key = Long.valueOf((long) fontNameId << 32 | (height & 0xFFFFL) << 16 | style & 0xFFFFL);
+		Font font = fonts.get(key);
+
+		if (font == null) {
+			final FontData fontData = new FontData(fontName, height, style);
+			final String name = fontData.toString();
+			final FontRegistry fontRegistry = JFaceResources.getFontRegistry();
+
+			if (!fontRegistry.hasValueFor(name)) {
+				fontRegistry.put(name, new FontData[] { fontData });
+			}
+
+			font = fontRegistry.get(name);
+			fonts.put(key, font);
+		}
+
+		return font;
+	}
+
+	/**
+	 * Returns the shared color.
+	 *
+	 * @param rgb
+	 *        the packed RGB value or {@link #NO_COLOR}
+	 *
+	 * @return the color or <code>null</code> for {@link #NO_COLOR}
+	 */
+	Color getColor(final int rgb) {
+		if (rgb == NO_COLOR) {
+			return null;
+		}
+
+		final Integer key = Integer.valueOf(rgb);
+		Color color = colors.get(key);
+
+		if (color == null) {
+			final RGB value = unpack(rgb);
+			final String name = String.valueOf(value);
+			final ColorRegistry colorRegistry = JFaceResources.getColorRegistry();
+
+			if (!colorRegistry.hasValueFor(name)) {
+				colorRegistry.put(name, value);
+			}
+
+			color = colorRegistry.get(name);
+			colors.put(key, color);
+		}
+
+		return color;
+	}
+
+	/**
+	 * Packs a RGB value into an int.
+	 *
+	 * @param rgb
+	 *        the RGB value or <code>null</code>
+	 *
+	 * @return the packed value or {@link #NO_COLOR} if the RGB value is
+	 *         <code>null</code>
+	 */
+	static int pack(final RGB rgb) {
+		return rgb == null ? NO_COLOR : rgb.red << 16 | rgb.green << 8 | rgb.blue;
+	}
+
+	/**
+	 * Unpacks a packed RGB value.
+	 *
+	 * @param rgb
+	 *        the packed value
+	 *
+	 * @return the RGB value or <code>null</code> for {@link #NO_COLOR}
+	 */
+	static RGB unpack(final int rgb) {
+		return rgb == NO_COLOR ? null : new RGB(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF);
+	}
+
+	private void clear() {
+		fontNameIds.clear();
+		fonts.clear();
+		colors.clear();
+	}
+}
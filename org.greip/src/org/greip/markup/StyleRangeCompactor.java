@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.markup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.swt.custom.StyleRange;
+
+/**
+ * Compacts the style ranges returned by a markup parser before they are
+ * applied to a text layout. Empty ranges and ranges without any attribute,
+ * like the ranges of line breaks, are dropped and adjacent ranges with equal
+ * attributes are merged, which reduces the count of native style runs.
+ *
+ * @author Thomas Lorbeer
+ */
+final class StyleRangeCompactor {
+
+	private StyleRangeCompactor() {
+	}
+
+	/**
+	 * Compacts the style ranges. The specified ranges are not modified, merged
+	 * ranges are copies.
+	 *
+	 * @param ranges
+	 *        the style ranges ordered by start offset
+	 *
+	 * @return the compacted style ranges or the specified array if nothing could
+	 *         be compacted
+	 */
+	static StyleRange[] compact(final StyleRange[] ranges) {
+		final List<StyleRange> result = new ArrayList<>(ranges.length);
+		StyleRange last = null;
+		boolean lastIsCopy = false;
+
+		for (final StyleRange range : ranges) {
+			if (range.length <= 0 || isNoOp(range)) {
+				continue;
+			}
+
+			if (last != null && last.start + last.length == range.start && isMergeable(last, range)) {
+				if (!lastIsCopy) {
+					last = (StyleRange) last.clone();
+					lastIsCopy = true;
+					result.set(result.size() - 1, last);
+				}
+				last.length += range.length;
+
+			} else {
+				result.add(range);
+				last = range;
+				lastIsCopy = false;
+			}
+		}
+
+		return result.size() == ranges.length ? ranges : result.toArray(new StyleRange[result.size()]);
+	}
+
+	// links are kept even without style, they are needed for hit-testing
+	private static boolean isNoOp(final StyleRange range) {
+		return range.getClass() == StyleRange.class && range.isUnstyled() && range.data == null;
+	}
+
+	private static boolean isMergeable(final StyleRange range1, final StyleRange range2) {
+		return range1.getClass() == range2.getClass() && range1.similarTo(range2) && Objects.equals(range1.data, range2.data);
+	}
+}
@@ -9,6 +9,7 @@
 package org.greip.picture;
 
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -17,6 +18,7 @@ import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Composite;
+import org.greip.common.FrameScheduler;
 import org.greip.common.Util;
 import org.greip.decorator.ImageDecorator;
 import org.greip.internal.BorderPainter;
@@ -93,6 +95,11 @@ public class Picture extends Composite implements IBorderable {
 		scaleTo(new Point(SWT.DEFAULT, SWT.DEFAULT));
 	}
 
+	// defers the redraw to the next frame, so several changes result in one paint
+	private void scheduleRedraw() {
+		FrameScheduler.getInstance(getDisplay()).redraw(this);
+	}
+
 	@Override
 	public Point computeSize(final int wHint, final int hHint, final boolean changed) {
 		checkWidget();
@@ -154,6 +161,175 @@ public class Picture extends Composite implements IBorderable {
 		setSize(decorator.getSize());
 	}
 
+	/**
+	 * Loads an image from the file with the specified name at the resolution
+	 * needed for the current size defined by {@link #scaleTo(Point)}. Large
+	 * images are subsampled while they are decoded, so showing a large photo as
+	 * a thumbnail doesn't need the memory of the full image. If the image is
+	 * scaled to a larger size later, it is not decoded again.
+	 *
+	 * @param filename
+	 *        the name of the file to load the images from
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_IO - if an IO error occurs while reading from the
+	 *            file</li>
+	 *            <li>ERROR_INVALID_IMAGE - if the image file contains invalid
+	 *            data</li>
+	 *            <li>ERROR_UNSUPPORTED_FORMAT - if the image file contains an
+	 *            unrecognized format</li>
+	 *            </ul>
+	 *
+	 * @see ImageDecorator#loadThumbnail(String, Point)
+	 */
+	public void loadThumbnail(final String filename) {
+		decorator.loadThumbnail(filename, getThumbnailSize());
+		setSize(decorator.getSize());
+	}
+
+	/**
+	 * Loads an image from the specified input stream in the background. The
+	 * placeholder is shown until the image is loaded. The load is cancelled if
+	 * the receiver is disposed or another image is set or loaded in the
+	 * meantime.
+	 *
+	 * @param stream
+	 *        the input stream to load the images from
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, cancelling it cancels the load
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *            disposed</li>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the receiver</li>
+	 *            </ul>
+	 *
+	 * @see ImageDecorator#loadImageAsync(InputStream, Image)
+	 */
+	public CompletableFuture<Void> loadImageAsync(final InputStream stream, final Image placeholder) {
+		checkWidget();
+		return applySize(decorator.loadImageAsync(stream, placeholder));
+	}
+
+	/**
+	 * Loads an image from the file with the specified name in the background.
+	 * The placeholder is shown until the image is loaded. The load is cancelled
+	 * if the receiver is disposed or another image is set or loaded in the
+	 * meantime.
+	 *
+	 * @param filename
+	 *        the name of the file to load the images from
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, cancelling it cancels the load
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *            disposed</li>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the receiver</li>
+	 *            </ul>
+	 *
+	 * @see ImageDecorator#loadImageAsync(String, Image)
+	 */
+	public CompletableFuture<Void> loadImageAsync(final String filename, final Image placeholder) {
+		checkWidget();
+		return applySize(decorator.loadImageAsync(filename, placeholder));
+	}
+
+	/**
+	 * Loads an image from the file with the specified name at the resolution
+	 * needed for the current size in the background. The placeholder is shown
+	 * until the image is loaded. The load is cancelled if the receiver is
+	 * disposed or another image is set or loaded in the meantime.
+	 *
+	 * @param filename
+	 *        the name of the file to load the images from
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, cancelling it cancels the load
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *            disposed</li>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the receiver</li>
+	 *            </ul>
+	 *
+	 * @see #loadThumbnail(String)
+	 */
+	public CompletableFuture<Void> loadThumbnailAsync(final String filename, final Image placeholder) {
+		checkWidget();
+		return applySize(decorator.loadThumbnailAsync(filename, getThumbnailSize(), placeholder));
+	}
+
+	// the size defined by scaleTo or, if the image is fitted to the receiver,
+	// the current size of the receiver
+	private Point getThumbnailSize() {
+		if (scaleTo != null) {
+			return scaleTo;
+		}
+
+		final Point size = getSize();
+		if (size.x > 2 * borderWidth && size.y > 2 * borderWidth) {
+			return new Point(size.x - 2 * borderWidth, size.y - 2 * borderWidth);
+		}
+
+		return new Point(SWT.DEFAULT, SWT.DEFAULT);
+	}
+
+	private CompletableFuture<Void> applySize(final CompletableFuture<Void> load) {
+		setSize(decorator.getSize());
+
+		final CompletableFuture<Void> result = load.thenRun(() -> {
+			if (!isDisposed()) setSize(decorator.getSize());
+		});
+
+		// cancelling the returned future cancels the load
+		result.whenComplete((r, e) -> {
+			if (result.isCancelled()) load.cancel(false);
+		});
+
+		return result;
+	}
+
 	/**
 	 * Sets the image to the argument, which may be null indicating that no image
 	 * should be displayed.
@@ -234,7 +410,7 @@ public class Picture extends Composite implements IBorderable {
 	public void setBorderWidth(final int borderWidth) {
 		if (borderWidth < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		this.borderWidth = borderWidth;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -264,7 +440,7 @@ public class Picture extends Composite implements IBorderable {
 	 */
 	public void setBorderColor(final Color borderColor) {
 		this.borderColor = Util.checkResource(borderColor, true);
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -295,7 +471,7 @@ public class Picture extends Composite implements IBorderable {
 	public void setCornerRadius(final int cornerRadius) {
 		if (cornerRadius < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 		this.cornerRadius = cornerRadius;
-		redraw();
+		scheduleRedraw();
 	}
 
 	@Override
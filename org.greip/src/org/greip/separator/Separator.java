@@ -9,6 +9,7 @@
 package org.greip.separator;
 
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -24,6 +25,7 @@ import org.eclipse.swt.graphics.Transform;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.TypedListener;
+import org.greip.common.FrameScheduler;
 import org.greip.common.Greip;
 import org.greip.common.Util;
 import org.greip.decorator.ImageDecorator;
@@ -103,6 +105,11 @@ public class Separator extends Composite {
 		addListener(SWT.MouseUp, this::onMouseDown);
 	}
 
+	// defers the redraw to the next frame, so several changes result in one paint
+	private void scheduleRedraw() {
+		FrameScheduler.getInstance(getDisplay()).redraw(this);
+	}
+
 	private void onMouseDown(final Event e) {
 		final Rectangle bounds = getImageBounds();
 
@@ -207,7 +214,7 @@ public class Separator extends Composite {
 	public void setBackground(final Color background) {
 		checkWidget();
 		this.background = Util.checkResource(background, true);
-		redraw();
+		scheduleRedraw();
 	}
 
 	public int getIndent() {
@@ -218,7 +225,7 @@ public class Separator extends Composite {
 	public void setIndent(final int indent) {
 		checkWidget();
 		this.indent = indent;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -244,7 +251,7 @@ public class Separator extends Composite {
 	public void setLineCap(final int lineCap) {
 		checkWidget();
 		this.lineCap = lineCap;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -267,7 +274,7 @@ public class Separator extends Composite {
 	public void setLineColor(final Color lineColor) {
 		checkWidget();
 		this.lineColor = Util.checkResource(lineColor, true);
-		redraw();
+		scheduleRedraw();
 	}
 
 	private Color[] getLineColors() {
@@ -300,7 +307,7 @@ public class Separator extends Composite {
 	public void setLineDashs(final int[] lineDashs) {
 		checkWidget();
 		this.lineDashs = lineDashs;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -325,7 +332,7 @@ public class Separator extends Composite {
 	public void setLineStyle(final LineStyle lineStyle) {
 		checkWidget();
 		this.lineStyle = lineStyle;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -354,7 +361,7 @@ public class Separator extends Composite {
 	public void setLineWidth(final int lineWidth) {
 		checkWidget();
 		this.lineWidth = lineWidth;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -377,7 +384,7 @@ public class Separator extends Composite {
 	public void setMarginHeight(final int marginHeight) {
 		checkWidget();
 		this.marginHeight = marginHeight;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -400,7 +407,7 @@ public class Separator extends Composite {
 	public void setMarginWidth(final int marginWidth) {
 		checkWidget();
 		this.marginWidth = marginWidth;
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -426,7 +433,7 @@ public class Separator extends Composite {
 	public void setOrientation(final int orientation) {
 		checkWidget();
 		this.orientation = orientation;
-		redraw();
+		scheduleRedraw();
 	}
 
 	private boolean isVertical() {
@@ -468,7 +475,7 @@ public class Separator extends Composite {
 	public void setSpacing(final int spacing) {
 		checkWidget();
 		this.spacing = spacing;
-		redraw();
+		scheduleRedraw();
 	}
 
 	private int getSpacingCount() {
@@ -511,7 +518,7 @@ public class Separator extends Composite {
 	public void setText(final String text) {
 		checkWidget();
 		this.text = text;
-		redraw();
+		scheduleRedraw();
 	}
 
 	private Point getTextSize() {
@@ -559,7 +566,7 @@ public class Separator extends Composite {
 	public void setImage(final Image image) {
 		checkWidget();
 		imageDecorator.setImage(image);
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -587,7 +594,7 @@ public class Separator extends Composite {
 	public void loadImage(final InputStream stream) {
 		checkWidget();
 		imageDecorator.loadImage(stream);
-		redraw();
+		scheduleRedraw();
 	}
 
 	/**
@@ -615,7 +622,79 @@ public class Separator extends Composite {
 	public void loadImage(final String filename) {
 		checkWidget();
 		imageDecorator.loadImage(filename);
-		redraw();
+		scheduleRedraw();
+	}
+
+	/**
+	 * Loads an image from the specified input stream in the background. The
+	 * placeholder is shown until the image is loaded. The load is cancelled if
+	 * the receiver is disposed or another image is set or loaded in the
+	 * meantime.
+	 *
+	 * @param stream
+	 *        the input stream to load the images from
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, cancelling it cancels the load
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the stream is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *            disposed</li>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the receiver</li>
+	 *            </ul>
+	 *
+	 * @see ImageDecorator#loadImageAsync(InputStream, Image)
+	 */
+	public CompletableFuture<Void> loadImageAsync(final InputStream stream, final Image placeholder) {
+		checkWidget();
+		return imageDecorator.loadImageAsync(stream, placeholder);
+	}
+
+	/**
+	 * Loads an image from the file with the specified name in the background.
+	 * The placeholder is shown until the image is loaded. The load is cancelled
+	 * if the receiver is disposed or another image is set or loaded in the
+	 * meantime.
+	 *
+	 * @param filename
+	 *        the name of the file to load the images from
+	 * @param placeholder
+	 *        the image to show while loading or <code>null</code> to keep the
+	 *        current image
+	 *
+	 * @return a future which is completed on the user interface thread when the
+	 *         image has been applied, cancelling it cancels the load
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the file name is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the placeholder has been
+	 *            disposed</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *            disposed</li>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the receiver</li>
+	 *            </ul>
+	 *
+	 * @see ImageDecorator#loadImageAsync(String, Image)
+	 */
+	public CompletableFuture<Void> loadImageAsync(final String filename, final Image placeholder) {
+		checkWidget();
+		return imageDecorator.loadImageAsync(filename, placeholder);
 	}
 
 	private Rectangle getImageBounds() {
@@ -8,14 +8,20 @@
  **/
 package org.greip.tile;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
 import org.greip.common.Greip;
 import org.greip.common.Util;
+import org.greip.markup.MarkupTemplate;
 
 public final class TextSection {
 
@@ -24,6 +30,8 @@ public final class TextSection {
 	}
 
 	private String text;
+	private MarkupTemplate template;
+	private final Map<String, String> values = new HashMap<>();
 	private int alignment;
 	private Font font;
 	private Color foreground;
@@ -31,6 +39,8 @@ public final class TextSection {
 	private int[] margins = new int[4];
 
 	private final Set<TextSectionModifyListener> listeners = new HashSet<>(1);
+	private int batchDepth;
+	private boolean modified;
 
 	/**
 	 * Creates a new text section.
@@ -127,6 +137,80 @@ public final class TextSection {
 	public TextSection setText(final String text) {
 		if (text == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 		this.text = text;
+		this.template = null;
+		return fireEvent();
+	}
+
+	/**
+	 * Returns the markup template of the section.
+	 *
+	 * @return the template or <code>null</code> if the section content was set
+	 *         by {@link #setText(String)}
+	 */
+	public MarkupTemplate getTemplate() {
+		return template;
+	}
+
+	/**
+	 * Sets a markup template as textual content. The placeholders of the
+	 * template are replaced by the values set with
+	 * {@link #setValue(String, String)}. Changing a value does not parse the
+	 * template again.
+	 *
+	 * @param template
+	 *        the markup template (null not allowed)
+	 *
+	 * @return this
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the template is null</li>
+	 *            </ul>
+	 */
+	public TextSection setTemplate(final MarkupTemplate template) {
+		if (template == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		this.text = template.getMarkup();
+		this.template = template;
+		return fireEvent();
+	}
+
+	/**
+	 * Returns the placeholder values of the markup template.
+	 *
+	 * @return the values by placeholder name
+	 */
+	public Map<String, String> getValues() {
+		return Collections.unmodifiableMap(values);
+	}
+
+	/**
+	 * Sets the value of a placeholder of the markup template.
+	 *
+	 * @param name
+	 *        the placeholder name
+	 * @param value
+	 *        the value or <code>null</code> to remove the value
+	 *
+	 * @return this
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the name is null</li>
+	 *            </ul>
+	 */
+	public TextSection setValue(final String name, final String value) {
+		if (name == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		if (Objects.equals(values.get(name), value)) {
+			return this;
+		}
+
+		if (value == null) {
+			values.remove(name);
+		} else {
+			values.put(name, value);
+		}
+
 		return fireEvent();
 	}
 
@@ -273,6 +357,41 @@ public final class TextSection {
 		return fireEvent();
 	}
 
+	/**
+	 * Applies several changes to the section at once. The tile is notified only
+	 * once after all changes are done, e.g.
+	 *
+	 * <pre>
+	 * section.modify(s -&gt; s.setText(text).setForeground(color));
+	 * </pre>
+	 *
+	 * @param modifier
+	 *        the code which changes the section
+	 *
+	 * @return this
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the modifier is null</li>
+	 *            </ul>
+	 */
+	public TextSection modify(final Consumer<TextSection> modifier) {
+		if (modifier == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		batchDepth++;
+		try {
+			modifier.accept(this);
+		} finally {
+			// the changes made before a failure are still notified
+			if (--batchDepth == 0 && modified) {
+				modified = false;
+				fireEvent();
+			}
+		}
+
+		return this;
+	}
+
 	void addModifyListener(final TextSectionModifyListener listener) {
 		listeners.add(listener);
 	}
@@ -282,7 +401,11 @@ public final class TextSection {
 	}
 
 	private TextSection fireEvent() {
-		listeners.forEach(l -> l.sectionModified(this));
+		if (batchDepth > 0) {
+			modified = true;
+		} else {
+			listeners.forEach(l -> l.sectionModified(this));
+		}
 		return this;
 	}
 }
\ No newline at end of file
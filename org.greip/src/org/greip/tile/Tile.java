@@ -9,42 +9,29 @@
  **/
 package org.greip.tile;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.IntStream;
+import java.util.function.Consumer;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
 import org.eclipse.swt.events.MouseEvent;
 import org.eclipse.swt.events.MouseTrackAdapter;
-import org.eclipse.swt.events.PaintEvent;
-import org.eclipse.swt.events.PaintListener;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Cursor;
-import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Font;
 import org.eclipse.swt.graphics.Image;
-import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.Point;
-import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.Rectangle;
-import org.eclipse.swt.graphics.TextLayout;
-import org.eclipse.swt.graphics.TextStyle;
 import org.eclipse.swt.widgets.Composite;
-import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.TypedListener;
+import org.greip.common.FrameScheduler;
 import org.greip.common.Greip;
-import org.greip.common.Util;
+import org.greip.common.PendingUpdates;
 import org.greip.decorator.IDecorator;
-import org.greip.internal.BorderPainter;
 import org.greip.internal.IBorderable;
-import org.greip.markup.HtmlMarkupParser;
-import org.greip.markup.MarkupText;
-import org.greip.tile.TextSection.TextSectionModifyListener;
 
 /**
  * Instances of this class represent a non-selectable user interface object that
@@ -70,39 +57,8 @@ public class Tile extends Composite implements IBorderable {
 			notifyListeners(SWT.Selection, e);
 		}
 
-		private Rectangle getLineBounds(final TextLayout layout, final int offset) {
-			final int lineIndex = layout.getLineIndex(offset);
-			final int[] lineOffsets = layout.getLineOffsets();
-
-			return layout.getBounds(lineOffsets[lineIndex], lineOffsets[lineIndex + 1] - 1);
-		}
-
 		private String getLinkAt(final int x, final int y) {
-			final Point size = getSize();
-			final TextArea[] textAreas = createTextAreas(size.x, size.y);
-
-			try {
-				for (final TextArea textArea : textAreas) {
-					final Rectangle bounds = textArea.getBounds();
-
-					if (bounds.contains(x, y)) {
-						final int offset = textArea.layout.getOffset(x - bounds.x, y - bounds.y, null);
-						final Rectangle lineBounds = getLineBounds(textArea.layout, offset);
-
-						if (lineBounds.contains(x - bounds.x, y - bounds.y)) {
-							final TextStyle style = textArea.layout.getStyle(offset);
-
-							if (style.data instanceof String) {
-								return (String) style.data;
-							}
-						}
-					}
-				}
-			} finally {
-				disposeTextAreas(textAreas);
-			}
-
-			return null;
+			return renderer.getLinkAt(x, y);
 		}
 
 		@Override
@@ -119,7 +75,7 @@ public class Tile extends Composite implements IBorderable {
 
 			if (linkId != null) {
 				fireSelectionEvent(Greip.LINK, linkId);
-			} else if (getDecoratorBounds().contains(event.x, event.y)) {
+			} else if (renderer.getDecoratorBounds().contains(event.x, event.y)) {
 				fireSelectionEvent(Greip.DECORATOR, null);
 			} else {
 				fireSelectionEvent(SWT.NONE, null);
@@ -132,7 +88,7 @@ public class Tile extends Composite implements IBorderable {
 
 			if (linkId != null) {
 				cursor = getDisplay().getSystemCursor(SWT.CURSOR_HAND);
-			} else if (getDecoratorBounds().contains(event.x, event.y)) {
+			} else if (renderer.getDecoratorBounds().contains(event.x, event.y)) {
 				cursor = getDecoratorCursor();
 			} else {
 				cursor = getCursor();
@@ -142,60 +98,12 @@ public class Tile extends Composite implements IBorderable {
 		}
 	}
 
-	private static class TextArea {
-		private final TextLayout layout;
-		private int x;
-		private int y;
-		private int[] margins;
-
-		public TextArea(final TextLayout layout) {
-			this.layout = layout;
-		}
-
-		public void setLocation(final int x, final int y) {
-			this.x = x;
-			this.y = y;
-		}
-
-		public Rectangle getBounds() {
-			final Rectangle bounds = layout.getBounds();
-			return new Rectangle(x, y, bounds.width, layout.getText().isEmpty() ? 0 : bounds.height);
-		}
-
-		public void draw(final GC gc) {
-			layout.draw(gc, x, y);
-		}
-
-		public int[] getMargins() {
-			return margins;
-		}
-
-		public void setMargins(final int[] margins) {
-			this.margins = margins;
-		}
-	}
-
-	private IDecorator decorator;
-	private int decoratorAlignment = SWT.LEFT;
-
-	private int marginHeight = 10;
-	private int marginWidth = 10;
-	private int decoratorSpacing = 10;
-	private int textSpacing = 5;
-
-	private final BorderPainter border = new BorderPainter(this);
-	private int borderWidth;
-	private Color borderColor;
-	private int cornerRadius;
+	private final TileRenderer renderer = new TileRenderer(this, this::scheduleRedraw);
+	private final PendingUpdates pendingUpdates = PendingUpdates.getInstance(getDisplay());
 
 	private boolean selected;
 	private boolean highlight;
 	private final SelectionHandler linkHandler = new SelectionHandler();
-	private final List<TextSection> textSections = new ArrayList<>();
-	private final Color[] dimmedBackground = new Color[5];
-
-	private final TextSectionModifyListener sectionModifyListener = s -> redraw();
-
 	private Cursor decoratorCursor;
 	private Cursor cursor;
 
@@ -229,98 +137,32 @@ public class Tile extends Composite implements IBorderable {
 			@Override
 			public void mouseEnter(final MouseEvent e) {
 				selected = highlight;
-				redraw();
+				scheduleRedraw();
 			}
 
 			@Override
 			public void mouseExit(final MouseEvent e) {
 				selected = false;
-				redraw();
+				scheduleRedraw();
 			}
 		});
 
-		addPaintListener(new PaintListener() {
-
-			private void paintBackground(final GC gc) {
-				final Point size = getSize();
-
-				if (getBackgroundImage() == null) {
-					final int innerRadius = Math.max(0, 2 * cornerRadius - borderWidth);
-
-					gc.setBackground(selected ? dimmedBackground[0] : getBackground());
-					gc.fillRoundRectangle(borderWidth, borderWidth, size.x - 2 * borderWidth, 2 * cornerRadius, innerRadius, innerRadius);
-					gc.setForeground(selected ? dimmedBackground[0] : getBackground());
-					gc.setBackground(selected ? dimmedBackground[1] : getBackground());
-					gc.fillGradientRectangle(borderWidth, cornerRadius, size.x - 2 * borderWidth, size.y / 2 - cornerRadius, true);
-
-					gc.setForeground(selected ? dimmedBackground[2] : getBackground());
-					gc.setBackground(selected ? dimmedBackground[4] : getBackground());
-					gc.fillRoundRectangle(borderWidth, size.y - borderWidth - 2 * cornerRadius, size.x - 2 * borderWidth, 2 * cornerRadius,
-							innerRadius, innerRadius);
-					gc.fillGradientRectangle(borderWidth, size.y / 2, size.x - 2 * borderWidth, size.y / 2 - cornerRadius, true);
-
-				} else if (selected) {
-					gc.setBackground(getBackground());
-					gc.fillRectangle(0, 0, size.x, size.y);
-
-					final ImageData imageData = createTransparentBackgroundImage(gc);
-					Util.withResource(new Image(gc.getDevice(), imageData), img -> {
-						gc.drawImage(img, 0, 0);
-					});
-				}
-			}
-
-			private ImageData createTransparentBackgroundImage(final GC gc) {
-				final Point size = getSize();
-
-				return Util.withResource(new Image(gc.getDevice(), size.x, size.y), image -> {
-					Util.withResource(new GC(image), imageGC -> {
-						imageGC.drawImage(getBackgroundImage(), 0, 0);
-					});
-
-					final ImageData data = image.getImageData();
-					final byte[] alphas = new byte[size.x * size.y];
-
-					Arrays.fill(alphas, (byte) 230);
-					data.setAlphas(0, 0, alphas.length, alphas, 0);
-
-					return data;
-				});
-			}
-
-			@Override
-			public void paintControl(final PaintEvent e) {
-				e.gc.setAntialias(SWT.ON);
-
-				paintBackground(e.gc);
-				e.gc.setForeground(getForeground());
-
-				final Point size = getSize();
-				final TextArea[] textAreas = createTextAreas(size.x, size.y);
-				for (final TextArea textArea : textAreas) {
-					textArea.draw(e.gc);
-				}
-				disposeTextAreas(textAreas);
-
-				if (hasDecorator()) {
-					final Rectangle decoratorBounds = getDecoratorBounds();
-
-					e.gc.setClipping(decoratorBounds);
-					decorator.doPaint(e.gc, decoratorBounds.x, decoratorBounds.y);
-					e.gc.setClipping((Rectangle) null);
-				}
-
-				border.doPaint(e.gc, getParent().getBackground());
-			}
-		});
+		addPaintListener(e -> renderer.paint(e.gc, 0, 0, selected, getParent().getBackground()));
 
 		addListener(SWT.MouseMove, linkHandler);
 		addListener(SWT.MouseDown, linkHandler);
-		addListener(SWT.Dispose, e -> disposeBackgroundColors());
+		addListener(SWT.Resize, e -> {
+			final Point size = getSize();
+			renderer.setSize(size.x, size.y);
+		});
+		addListener(SWT.Dispose, e -> renderer.dispose());
 
 		setBackground(getDisplay().getSystemColor(SWT.COLOR_WHITE));
-		setMargins(10, 10);
-		setDecoratorAlignment(SWT.RIGHT);
+	}
+
+	// defers the redraw to the next frame, so several changes result in one paint
+	private void scheduleRedraw() {
+		FrameScheduler.getInstance(getDisplay()).redraw(this);
 	}
 
 	/**
@@ -331,8 +173,7 @@ public class Tile extends Composite implements IBorderable {
 	 *        the new text section
 	 */
 	public void addTextSection(final TextSection section) {
-		textSections.add(section);
-		section.addModifyListener(sectionModifyListener);
+		renderer.addTextSection(section);
 	}
 
 	/**
@@ -347,12 +188,7 @@ public class Tile extends Composite implements IBorderable {
 	 *            </ul>
 	 */
 	public void removeTextSections(final TextSection... sections) {
-		if (sections == null || sections.length == 0) {
-			removeSections(textSections.stream().toArray(TextSection[]::new));
-		} else {
-			removeSections(sections);
-		}
-		redraw();
+		renderer.removeTextSections(sections);
 	}
 
 	/**
@@ -370,8 +206,40 @@ public class Tile extends Composite implements IBorderable {
 	 *            </ul>
 	 */
 	public TextSection getTextSection(final int index) {
-		if (index < 0 || index >= textSections.size()) SWT.error(SWT.ERROR_INVALID_RANGE);
-		return textSections.get(index);
+		return renderer.getTextSection(index);
+	}
+
+	/**
+	 * Posts a new text for the n'th text section. This method may be called from
+	 * any thread. The markup is parsed on the calling thread, but the text is
+	 * set on the user interface thread, only the latest of several texts posted
+	 * for a section in a short time is set.
+	 *
+	 * @param index
+	 *        the index of the text section
+	 * @param text
+	 *        the new text (null not allowed)
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_RANGE - if the index less than zero or
+	 *            greater or equal to the count of text sections</li>
+	 *            <li>ERROR_NULL_ARGUMENT - if the text is null</li>
+	 *            </ul>
+	 *
+	 * @see TextSection#setText(String)
+	 * @see PendingUpdates
+	 */
+	public void postText(final int index, final String text) {
+		if (index < 0 || index >= renderer.getTextSectionCount()) SWT.error(SWT.ERROR_INVALID_RANGE);
+		if (text == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		renderer.compileText(text);
+
+		// the section may have been removed until the text is set
+		pendingUpdates.post(this, Integer.valueOf(index), () -> {
+			if (!isDisposed() && index < renderer.getTextSectionCount()) getTextSection(index).setText(text);
+		});
 	}
 
 	/*
@@ -383,23 +251,30 @@ public class Tile extends Composite implements IBorderable {
 	@Override
 	public void setBackground(final Color color) {
 		super.setBackground(color);
-		disposeBackgroundColors();
-
-		final Display display = getDisplay();
-		RGB backgroundRGB = color.getRGB();
-		final float brightness = backgroundRGB.getHSB()[2];
+		renderer.setBackground(color);
+	}
 
-		if (brightness > 0.7f) {
-			backgroundRGB = Util.getDimmedRGB(backgroundRGB, -(0.3f - brightness) / 10);
-		} else if (brightness < 0.3f) {
-			backgroundRGB = Util.getDimmedRGB(backgroundRGB, 0.3f - brightness);
-		}
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * org.eclipse.swt.widgets.Control#setBackgroundImage(org.eclipse.swt.graphics.
+	 * Image)
+	 */
+	@Override
+	public void setBackgroundImage(final Image image) {
+		super.setBackgroundImage(image);
+		renderer.setBackgroundImage(image);
+	}
 
-		dimmedBackground[0] = new Color(display, Util.getDimmedRGB(backgroundRGB, 0.07f));
-		dimmedBackground[1] = new Color(display, Util.getDimmedRGB(backgroundRGB, -0.02f));
-		dimmedBackground[2] = new Color(display, Util.getDimmedRGB(backgroundRGB, -0.07f));
-		dimmedBackground[3] = new Color(display, Util.getDimmedRGB(backgroundRGB, 0.25f));
-		dimmedBackground[4] = new Color(display, backgroundRGB);
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.swt.widgets.Control#setFont(org.eclipse.swt.graphics.Font)
+	 */
+	@Override
+	public void setFont(final Font font) {
+		super.setFont(font);
+		renderer.invalidateTextAreas();
+		renderer.redraw();
 	}
 
 	/**
@@ -409,7 +284,7 @@ public class Tile extends Composite implements IBorderable {
 	 */
 	@Override
 	public Color getBorderColor() {
-		return borderColor != null ? borderColor : getDisplay().getSystemColor(SWT.COLOR_WIDGET_BORDER);
+		return renderer.getBorderColor();
 	}
 
 	/**
@@ -424,9 +299,7 @@ public class Tile extends Composite implements IBorderable {
 	 * @see #setCornerRadius(int)
 	 */
 	public void setBorderColor(final Color borderColor) {
-		if (borderColor != null && borderColor.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		this.borderColor = borderColor;
-		redraw();
+		renderer.setBorderColor(borderColor);
 	}
 
 	/**
@@ -436,7 +309,7 @@ public class Tile extends Composite implements IBorderable {
 	 */
 	@Override
 	public int getBorderWidth() {
-		return borderWidth;
+		return renderer.getBorderWidth();
 	}
 
 	/**
@@ -454,10 +327,8 @@ public class Tile extends Composite implements IBorderable {
 	 * @see #setBorderColor(Color)
 	 * @see #setCornerRadius(int)
 	 */
-	public void setBorderWidth(final int borderWith) {
-		if (borderWidth < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		this.borderWidth = borderWith;
-		redraw();
+	public void setBorderWidth(final int borderWidth) {
+		renderer.setBorderWidth(borderWidth);
 	}
 
 	/*
@@ -486,7 +357,7 @@ public class Tile extends Composite implements IBorderable {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T extends IDecorator> T getDecorator() {
-		return (T) decorator;
+		return (T) renderer.getDecorator();
 	}
 
 	/**
@@ -498,8 +369,7 @@ public class Tile extends Composite implements IBorderable {
 	 *        be use
 	 */
 	public void setDecorator(final IDecorator decorator) {
-		this.decorator = decorator;
-		redraw();
+		renderer.setDecorator(decorator);
 	}
 
 	/**
@@ -508,7 +378,7 @@ public class Tile extends Composite implements IBorderable {
 	 * @return the alignment
 	 */
 	public int getDecoratorAlignment() {
-		return decoratorAlignment;
+		return renderer.getDecoratorAlignment();
 	}
 
 	/**
@@ -538,23 +408,7 @@ public class Tile extends Composite implements IBorderable {
 	 *            </ul>
 	 */
 	public void setDecoratorAlignment(final int alignment) {
-		switch (alignment) {
-			case SWT.LEFT:
-			case SWT.RIGHT:
-			case SWT.TOP:
-			case SWT.BOTTOM:
-			case SWT.CENTER:
-			case SWT.LEFT | SWT.TOP:
-			case SWT.RIGHT | SWT.TOP:
-			case SWT.LEFT | SWT.BOTTOM:
-			case SWT.RIGHT | SWT.BOTTOM:
-				this.decoratorAlignment = alignment;
-				redraw();
-				break;
-
-			default:
-				SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		}
+		renderer.setDecoratorAlignment(alignment);
 	}
 
 	/**
@@ -593,7 +447,7 @@ public class Tile extends Composite implements IBorderable {
 	 * @return the spacing in pixels
 	 */
 	public int getDecoratorSpacing() {
-		return decoratorSpacing;
+		return renderer.getDecoratorSpacing();
 	}
 
 	/**
@@ -609,9 +463,7 @@ public class Tile extends Composite implements IBorderable {
 	 *            </ul>
 	 */
 	public void setDecoratorSpacing(final int decoratorSpacing) {
-		if (decoratorSpacing < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		this.decoratorSpacing = decoratorSpacing;
-		redraw();
+		renderer.setDecoratorSpacing(decoratorSpacing);
 	}
 
 	/**
@@ -621,7 +473,7 @@ public class Tile extends Composite implements IBorderable {
 	 */
 	@Override
 	public int getCornerRadius() {
-		return cornerRadius;
+		return renderer.getCornerRadius();
 	}
 
 	/**
@@ -640,9 +492,7 @@ public class Tile extends Composite implements IBorderable {
 	 * @see #setBorderWidth(int)
 	 */
 	public void setCornerRadius(final int cornerRadius) {
-		if (cornerRadius < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		this.cornerRadius = cornerRadius;
-		redraw();
+		renderer.setCornerRadius(cornerRadius);
 	}
 
 	/**
@@ -664,7 +514,7 @@ public class Tile extends Composite implements IBorderable {
 	 */
 	public void setHighlight(final boolean highlight) {
 		this.highlight = highlight;
-		redraw();
+		renderer.redraw();
 	}
 
 	/**
@@ -674,7 +524,7 @@ public class Tile extends Composite implements IBorderable {
 	 * @return the margins
 	 */
 	public Point getMargins() {
-		return new Point(marginWidth, marginHeight);
+		return renderer.getMargins();
 	}
 
 	/**
@@ -693,10 +543,7 @@ public class Tile extends Composite implements IBorderable {
 	 *            </ul>
 	 */
 	public void setMargins(final int marginWidth, final int marginHeight) {
-		if (marginHeight < 0 || marginWidth < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		this.marginHeight = marginHeight;
-		this.marginWidth = marginWidth;
-		redraw();
+		renderer.setMargins(marginWidth, marginHeight);
 	}
 
 	/**
@@ -705,7 +552,7 @@ public class Tile extends Composite implements IBorderable {
 	 * @return the spacing in pixels
 	 */
 	public int getTextSpacing() {
-		return textSpacing;
+		return renderer.getTextSpacing();
 	}
 
 	/**
@@ -721,9 +568,41 @@ public class Tile extends Composite implements IBorderable {
 	 *            </ul>
 	 */
 	public void setTextSpacing(final int textSpacing) {
-		if (decoratorSpacing < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-		this.textSpacing = textSpacing;
-		redraw();
+		renderer.setTextSpacing(textSpacing);
+	}
+
+	/**
+	 * Applies several changes to the tile and its text sections at once. The
+	 * text layout is invalidated and the tile is redrawn only once after all
+	 * changes are done, e.g.
+	 *
+	 * <pre>
+	 * tile.modify(t -&gt; {
+	 * 	t.getTextSection(0).setText(title);
+	 * 	t.getTextSection(1).setText(value);
+	 * 	t.setBackground(color);
+	 * });
+	 * </pre>
+	 *
+	 * @param modifier
+	 *        the code which changes the tile
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the modifier is null</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_WIDGET_DISPOSED - if the receiver has been
+	 *            disposed</li>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the receiver</li>
+	 *            </ul>
+	 */
+	public void modify(final Consumer<Tile> modifier) {
+		checkWidget();
+		if (modifier == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		renderer.modify(() -> modifier.accept(this));
 	}
 
 	/**
@@ -793,262 +672,13 @@ public class Tile extends Composite implements IBorderable {
 	 */
 	@Override
 	public Point computeSize(final int wHint, final int hHint, final boolean changed) {
-		final Point size = new Point(0, 0);
-
-		final TextArea[] textAreas = createTextAreas(wHint, SWT.DEFAULT);
-		final int height = getTotalTextHeight(textAreas);
-		final int width = getMaxTextWidth(textAreas);
-
-		size.x = 2 * (marginWidth + borderWidth);
-		size.y = 2 * (marginHeight + borderWidth);
-
-		final Point decoratorSize = getDecoratorSize();
-
-		if ((decoratorAlignment & SWT.LEFT) > 0 || (decoratorAlignment & SWT.RIGHT) > 0) {
-			size.x += decoratorSize.x + getEffectiveDecoratorSpacing() + width;
-			size.y += Math.max(decoratorSize.y, height);
-
-		} else if (decoratorAlignment == SWT.CENTER) {
-			final int nonEmptyTextCount = getNonEmptyTextCount();
-
-			size.x += Math.max(decoratorSize.x, width);
-			size.y += decoratorSize.y + height + Math.min(nonEmptyTextCount, 2) * getEffectiveDecoratorSpacing()
-					- (nonEmptyTextCount >= 2 ? textSpacing : 0);
-
-		} else {
-			size.x += Math.max(decoratorSize.x, width);
-			size.y += decoratorSize.y + getEffectiveDecoratorSpacing() + height;
-		}
-
-		disposeTextAreas(textAreas);
-
-		return size;
-	}
-
-	private void removeSections(final TextSection... sections) {
-		for (final TextSection section : sections) {
-			section.removeModifyListener(sectionModifyListener);
-			textSections.remove(section);
-		}
+		return renderer.computeSize(wHint);
 	}
 
 	private void showCursor(final Cursor cursor) {
 		super.setCursor(cursor);
 	}
 
-	private int computeMaxTextWidth(final int maxWidth) {
-		int width = maxWidth - 2 * marginWidth;
-
-		if ((decoratorAlignment & SWT.LEFT) > 0 || (decoratorAlignment & SWT.RIGHT) > 0) {
-			width -= getDecoratorSize().x + getEffectiveDecoratorSpacing();
-		}
-
-		return Math.max(10, width - 2 * borderWidth);
-	}
-
-	private int computeTextIndent() {
-		final Point decoratorSize = getDecoratorSize();
-		int x = marginWidth + borderWidth;
-
-		if ((decoratorAlignment & SWT.LEFT) > 0) {
-			x += decoratorSize.x + getEffectiveDecoratorSpacing();
-		}
-
-		return x;
-	}
-
-	private TextArea createTextArea(final int index, final int wHint, final int hHint) {
-		final int[] margins = getTextSection(index).getMargins();
-
-		final TextLayout layout = createTextLayout(index, computeMaxTextWidth(wHint - margins[0] - margins[1]), hHint);
-		final TextArea textArea = new TextArea(layout);
-
-		textArea.setLocation(computeTextIndent(), 0);
-		textArea.setMargins(margins);
-
-		return textArea;
-	}
-
-	private TextArea[] createTextAreas(final int wHint, final int hHint) {
-		final TextArea[] textAreas = IntStream.range(0, textSections.size()).mapToObj(i -> createTextArea(i, wHint, SWT.DEFAULT))
-				.toArray(TextArea[]::new);
-
-		final Point decoratorSize = getDecoratorSize();
-		int y = marginHeight + borderWidth;
-
-		if (decoratorAlignment == SWT.TOP) {
-			y += decoratorSize.y + decoratorSpacing;
-
-		} else if (decoratorAlignment == SWT.CENTER && textAreas.length > 0) {
-			final int nonEmptyTextCount = getNonEmptyTextCount();
-
-			int offset = Math.min(nonEmptyTextCount, 2) * decoratorSpacing;
-			offset -= nonEmptyTextCount >= 2 ? textSpacing : 0;
-			offset += decoratorSize.y;
-
-			for (int i = 1; i < textAreas.length; i++) {
-				final Rectangle bounds = textAreas[i].getBounds();
-				textAreas[i].setLocation(bounds.x, bounds.y + offset);
-			}
-
-		} else if (decoratorAlignment != SWT.BOTTOM) {
-			y += Math.max(0, (decoratorSize.y - getTotalTextHeight(textAreas)) / 2);
-		}
-
-		for (final TextArea textArea : textAreas) {
-			final Rectangle bounds = textArea.getBounds();
-			final int[] margins = textArea.getMargins();
-			final int height = bounds.height;
-
-			textArea.setLocation(bounds.x + margins[0], bounds.y + y + margins[2]);
-			y += height + (height == 0 ? 0 : textSpacing + margins[2] + margins[3]);
-		}
-
-		if (hHint != SWT.DEFAULT) {
-			shortenPartiallyDisplayedTextArea(textAreas, wHint, hHint);
-		}
-
-		return textAreas;
-	}
-
-	private void shortenPartiallyDisplayedTextArea(final TextArea[] textAreas, final int wHint, final int hHint) {
-		for (int i = textAreas.length - 1; i >= 0; i--) {
-			final Rectangle bounds = textAreas[i].getBounds();
-			final int height = bounds.y + bounds.height;
-
-			if (height + marginHeight + borderWidth > hHint && bounds.y < hHint) {
-				textAreas[i].layout.dispose();
-				textAreas[i] = createTextArea(i, wHint, Math.max(0, hHint - bounds.y - marginHeight - borderWidth));
-				textAreas[i].setLocation(bounds.x, bounds.y);
-			}
-		}
-	}
-
-	private static void disposeTextAreas(final TextArea[] textAreas) {
-		for (final TextArea textArea : textAreas) {
-			textArea.layout.dispose();
-		}
-	}
-
-	private TextLayout createTextLayout(final int index, final int maxWidth, final int maxHeight) {
-		final MarkupText markupText = new MarkupText(this, new HtmlMarkupParser());
-		final TextSection section = getTextSection(index);
-
-		markupText.setFont(Util.nvl(section.getFont(), getFont()));
-		markupText.setForeground(section.getForeground());
-		markupText.setAlignment(section.getAlignment());
-		markupText.setWrap(section.isWrap());
-		markupText.layout(section.getText(), maxWidth, maxHeight);
-
-		return markupText.getTextLayout();
-	}
-
-	private Rectangle getDecoratorBounds() {
-		final Point decoratorSize = getDecoratorSize();
-		final Point size = getSize();
-		int x;
-		int y;
-
-		if (decoratorAlignment == SWT.BOTTOM) {
-			x = (size.x - 2 * marginWidth - decoratorSize.x) / 2 + marginWidth;
-			y = size.y - marginHeight - decoratorSize.y - borderWidth;
-		} else if (decoratorAlignment == SWT.TOP) {
-			x = (size.x - 2 * marginWidth - decoratorSize.x) / 2 + marginWidth;
-			y = marginHeight + borderWidth;
-		} else if (decoratorAlignment == SWT.CENTER) {
-			x = (size.x - 2 * marginWidth - decoratorSize.x) / 2 + marginWidth;
-			y = marginHeight + borderWidth;
-			if (!textSections.isEmpty()) {
-				final int height = createTextArea(0, size.x, size.y).getBounds().height;
-				y += height + (height == 0 ? 0 : decoratorSpacing);
-			}
-		} else {
-			if ((decoratorAlignment & SWT.LEFT) > 0) {
-				x = marginWidth + borderWidth;
-			} else {
-				x = size.x - decoratorSize.x - marginWidth - borderWidth;
-			}
-			if ((decoratorAlignment & SWT.TOP) > 0) {
-				y = marginHeight + borderWidth;
-			} else if ((decoratorAlignment & SWT.BOTTOM) > 0) {
-				y = size.y - marginHeight - decoratorSize.y - borderWidth;
-			} else {
-				y = marginHeight + Math.max(0, (size.y - decoratorSize.y) / 2 - marginHeight);
-			}
-		}
-
-		x = Math.max(x, borderWidth + marginWidth);
-		y = Math.max(y, borderWidth + marginHeight);
-
-		// Clipping auf sichtbaren Bereich, Rand wird nicht übermalt
-		final int maxHeight = size.y - borderWidth - marginHeight - y;
-		final int maxWidth = size.x - borderWidth - marginWidth - x;
-
-		return new Rectangle(x, y, Math.min(decoratorSize.x, maxWidth), Math.min(decoratorSize.y, maxHeight));
-	}
-
-	private Point getDecoratorSize() {
-		return hasDecorator() ? decorator.getSize() : new Point(0, 0);
-	}
-
-	private int getEffectiveDecoratorSpacing() {
-		return hasDecorator() && hasAnyText() ? decoratorSpacing : 0;
-	}
-
-	private static int getMaxTextWidth(final TextArea[] textAreas) {
-		int maxWidth = 0;
-
-		for (final TextArea textArea : textAreas) {
-			final int[] margins = textArea.margins;
-			maxWidth = Math.max(maxWidth, textArea.getBounds().width + margins[0] + margins[1]);
-		}
-
-		return maxWidth;
-	}
-
-	private int getTotalTextHeight(final TextArea[] textAreas) {
-		int totalHeight = 0;
-
-		for (final TextArea textArea : textAreas) {
-			final int[] margins = textArea.margins;
-			totalHeight += textArea.getBounds().height + margins[2] + margins[3];
-		}
-
-		return Math.max(totalHeight + (getNonEmptyTextCount() - 1) * textSpacing, 0);
-	}
-
-	private boolean hasDecorator() {
-		return decorator != null;
-	}
-
-	private boolean hasAnyText() {
-		for (final TextSection descriptor : textSections) {
-			if (!descriptor.getText().isEmpty()) {
-				return true;
-			}
-		}
-		return !textSections.isEmpty();
-	}
-
-	private int getNonEmptyTextCount() {
-		int count = textSections.size();
-
-		for (final TextSection section : textSections) {
-			if (section.getText().isEmpty()) {
-				count--;
-			}
-		}
-		return count;
-	}
-
-	private void disposeBackgroundColors() {
-		for (final Color color : dimmedBackground) {
-			if (color != null) {
-				color.dispose();
-			}
-		}
-	}
-
 	@Override
 	public Rectangle getClientArea() {
 		final Point size = getSize();
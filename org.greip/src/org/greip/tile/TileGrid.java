@@ -0,0 +1,602 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.tile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.events.SelectionEvent;
+import org.eclipse.swt.events.SelectionListener;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Cursor;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Canvas;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.ScrollBar;
+import org.eclipse.swt.widgets.TypedListener;
+import org.greip.common.FrameScheduler;
+import org.greip.common.Greip;
+
+/**
+ * Instances of this class display a scrollable grid of tiles. The tiles are
+ * represented by {@link TileItem}s, which look like a {@link Tile} but are
+ * painted by the grid itself, so there is only one native control for all
+ * tiles. All tiles have the same size, only the tiles intersecting the visible
+ * area are laid out and painted.
+ * <dl>
+ * <dt><b>Styles:</b></dt>
+ * <dd>NONE</dd>
+ * <dt><b>Events:</b></dt>
+ * <dd>Selection</dd>
+ * </dl>
+ *
+ * @author Thomas Lorbeer
+ */
+public class TileGrid extends Canvas {
+
+	private static final int MIN_LAYOUT_CACHE_SIZE = 16;
+
+	private final List<TileItem> items = new ArrayList<>();
+	private int tileWidth = 200;
+	private int tileHeight = 100;
+	private int spacing = 10;
+	private int topPixel;
+	private int layoutCacheSize = MIN_LAYOUT_CACHE_SIZE;
+	private TileItem hoverItem;
+	private Cursor cursor;
+	private final Set<TileItem> dirtyItems = new LinkedHashSet<>();
+
+	// items with text layouts and background rasters, the least recently
+	// painted items release them
+	private final Map<TileItem, Boolean> laidOutItems = new LinkedHashMap<TileItem, Boolean>(64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<TileItem, Boolean> eldest) {
+			if (size() > layoutCacheSize) {
+				final TileRenderer renderer = eldest.getKey().getRenderer();
+
+				renderer.invalidateTextAreas();
+				renderer.invalidateBackground();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	/**
+	 * Constructs a new instance of this class given its parent and a style value
+	 * describing its behavior and appearance.
+	 *
+	 * @param parent
+	 *        a composite control which will be the parent of the new instance
+	 *        (cannot be null)
+	 * @param style
+	 *        the style of control to construct (reserved for future use, only
+	 *        SWT.NONE allowed)
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the parent is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if style is not SWT.NONE</li>
+	 *            </ul>
+	 * @exception SWTException
+	 *            <ul>
+	 *            <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread
+	 *            that created the parent</li>
+	 *            </ul>
+	 */
+	public TileGrid(final Composite parent, final int style) {
+		super(parent, SWT.DOUBLE_BUFFERED | SWT.NO_FOCUS | SWT.V_SCROLL);
+		if (style != SWT.NONE) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+
+		addPaintListener(e -> paint(e.gc, new Rectangle(e.x, e.y, e.width, e.height)));
+		addListener(SWT.Resize, e -> {
+			updateScrollBar();
+			redraw();
+		});
+		addListener(SWT.MouseMove, this::handleMouseMove);
+		addListener(SWT.MouseDown, this::handleMouseDown);
+		addListener(SWT.MouseExit, e -> setHoverItem(null));
+		addListener(SWT.Dispose, e -> {
+			items.forEach(item -> item.getRenderer().dispose());
+			laidOutItems.clear();
+		});
+
+		getVerticalBar().addListener(SWT.Selection, e -> scrollTo(getVerticalBar().getSelection()));
+		updateScrollBar();
+	}
+
+	/**
+	 * Returns the item at the specified index.
+	 *
+	 * @param index
+	 *        the index
+	 *
+	 * @return the item
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_RANGE - if the index is out of range</li>
+	 *            </ul>
+	 */
+	public TileItem getItem(final int index) {
+		checkWidget();
+		if (index < 0 || index >= items.size()) SWT.error(SWT.ERROR_INVALID_RANGE);
+		return items.get(index);
+	}
+
+	/**
+	 * Returns the item at the specified location or <code>null</code> if there
+	 * is no item.
+	 *
+	 * @param point
+	 *        the location relative to the grid
+	 *
+	 * @return the item or <code>null</code>
+	 */
+	public TileItem getItem(final Point point) {
+		checkWidget();
+		if (point == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		final int index = getItemIndex(point.x, point.y);
+		return index < 0 ? null : items.get(index);
+	}
+
+	/**
+	 * Returns the count of items.
+	 *
+	 * @return the count
+	 */
+	public int getItemCount() {
+		checkWidget();
+		return items.size();
+	}
+
+	/**
+	 * Returns a copy of the items.
+	 *
+	 * @return the items
+	 */
+	public TileItem[] getItems() {
+		checkWidget();
+		return items.toArray(new TileItem[items.size()]);
+	}
+
+	/**
+	 * Returns the index of the item or -1 if the grid does not contain the item.
+	 *
+	 * @param item
+	 *        the item
+	 *
+	 * @return the index
+	 */
+	public int indexOf(final TileItem item) {
+		checkWidget();
+		return item != null && item.getParent() == this ? item.getIndex() : -1;
+	}
+
+	/**
+	 * Disposes all items.
+	 */
+	public void removeAll() {
+		checkWidget();
+
+		// the last item is removed without moving the others
+		for (int i = items.size() - 1; i >= 0; i--) {
+			items.get(i).dispose();
+		}
+	}
+
+	/**
+	 * Scrolls the grid until the item is visible.
+	 *
+	 * @param item
+	 *        the item
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the item is null</li>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the item does not belong to
+	 *            the grid</li>
+	 *            </ul>
+	 */
+	public void showItem(final TileItem item) {
+		checkWidget();
+		if (item == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		final int index = indexOf(item);
+		if (index < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+
+		final Rectangle bounds = getItemBounds(index);
+		final Rectangle clientArea = getClientArea();
+
+		if (bounds.y < 0) {
+			scrollTo(topPixel + bounds.y - spacing);
+		} else if (bounds.y + bounds.height > clientArea.height) {
+			scrollTo(topPixel + bounds.y + bounds.height + spacing - clientArea.height);
+		}
+	}
+
+	/**
+	 * Returns the size of the tiles.
+	 *
+	 * @return the size
+	 */
+	public Point getTileSize() {
+		return new Point(tileWidth, tileHeight);
+	}
+
+	/**
+	 * Defines the size of all tiles.
+	 *
+	 * @param width
+	 *        the width in pixels
+	 * @param height
+	 *        the height in pixels
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_ARGUMENT - if width or height are less than
+	 *            one</li>
+	 *            </ul>
+	 */
+	public void setTileSize(final int width, final int height) {
+		checkWidget();
+		if (width < 1 || height < 1) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+
+		this.tileWidth = width;
+		this.tileHeight = height;
+		items.forEach(item -> item.getRenderer().setSize(width, height));
+		laidOutItems.clear();
+		updateScrollBar();
+		redraw();
+	}
+
+	/**
+	 * Returns the spacing between the tiles.
+	 *
+	 * @return the spacing in pixels
+	 */
+	public int getSpacing() {
+		return spacing;
+	}
+
+	/**
+	 * Defines the spacing between the tiles and to the edges of the grid.
+	 *
+	 * @param spacing
+	 *        the spacing in pixels
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_ARGUMENT - if the spacing is less than
+	 *            zero</li>
+	 *            </ul>
+	 */
+	public void setSpacing(final int spacing) {
+		checkWidget();
+		if (spacing < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+
+		this.spacing = spacing;
+		updateScrollBar();
+		redraw();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * org.eclipse.swt.widgets.Control#setBackground(org.eclipse.swt.graphics.
+	 * Color)
+	 */
+	@Override
+	public void setBackground(final Color color) {
+		super.setBackground(color);
+		items.forEach(item -> item.getRenderer().invalidateBackground());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.swt.widgets.Control#getCursor()
+	 */
+	@Override
+	public Cursor getCursor() {
+		return cursor;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see
+	 * org.eclipse.swt.widgets.Control#setCursor(org.eclipse.swt.graphics.Cursor)
+	 */
+	@Override
+	public void setCursor(final Cursor cursor) {
+		this.cursor = cursor;
+		super.setCursor(cursor);
+	}
+
+	/**
+	 * Adds the listener to the collection of listeners who will be notified when
+	 * a tile is clicked, by sending it one of the messages defined in the
+	 * <code>SelectionListener</code> interface. The index of the item is passed
+	 * in the <code>index</code> field of the event. If a link is clicked, the
+	 * <code>detail</code> field contains <code>Greip.LINK</code> and the
+	 * <code>data</code> field the link target, if the decorator is clicked,
+	 * the <code>detail</code> field contains <code>Greip.DECORATOR</code>.
+	 *
+	 * @param listener
+	 *        the listener which should be notified
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the listener is null</li>
+	 *            </ul>
+	 *
+	 * @see SelectionListener
+	 * @see #removeSelectionListener
+	 * @see SelectionEvent
+	 */
+	public void addSelectionListener(final SelectionListener listener) {
+		if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		addListener(SWT.Selection, new TypedListener(listener));
+	}
+
+	/**
+	 * Removes the listener from the collection of listeners who will be
+	 * notified when a tile is clicked.
+	 *
+	 * @param listener
+	 *        the listener which should no longer be notified
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the listener is null</li>
+	 *            </ul>
+	 *
+	 * @see SelectionListener
+	 * @see #addSelectionListener
+	 */
+	public void removeSelectionListener(final SelectionListener listener) {
+		if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		removeListener(SWT.Selection, listener);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.swt.widgets.Composite#computeSize(int, int, boolean)
+	 */
+	@Override
+	public Point computeSize(final int wHint, final int hHint, final boolean changed) {
+		checkWidget();
+
+		final int columns = wHint == SWT.DEFAULT ? Math.max(1, items.size()) : getColumnCount(wHint);
+		final int rows = (items.size() + columns - 1) / columns;
+		final int width = wHint == SWT.DEFAULT ? columns * (tileWidth + spacing) + spacing : wHint;
+		final int height = hHint == SWT.DEFAULT ? rows * (tileHeight + spacing) + spacing : hHint;
+		final Rectangle trim = computeTrim(0, 0, width, height);
+
+		return new Point(trim.width, trim.height);
+	}
+
+	void addItem(final TileItem item) {
+		item.setIndex(items.size());
+		items.add(item);
+		item.getRenderer().setSize(tileWidth, tileHeight);
+		updateScrollBar();
+		redraw(item);
+	}
+
+	void removeItem(final TileItem item) {
+		final int index = item.getIndex();
+
+		if (index >= 0) {
+			items.remove(index);
+			laidOutItems.remove(item);
+			item.setIndex(-1);
+
+			for (int i = index; i < items.size(); i++) {
+				items.get(i).setIndex(i);
+			}
+
+			if (item == hoverItem) {
+				hoverItem = null;
+			}
+
+			if (!isDisposed()) {
+				updateScrollBar();
+				redraw();
+			}
+		}
+	}
+
+	void redraw(final TileItem item) {
+		if (!isDisposed()) {
+			if (dirtyItems.isEmpty()) {
+				FrameScheduler.getInstance(getDisplay()).exec(this::redrawDirtyItems);
+			}
+			dirtyItems.add(item);
+		}
+	}
+
+	private void redrawDirtyItems() {
+		if (!isDisposed()) {
+			final Rectangle clientArea = getClientArea();
+
+			for (final TileItem item : dirtyItems) {
+				final int index = item.getIndex();
+
+				if (index >= 0) {
+					final Rectangle bounds = getItemBounds(index);
+
+					if (bounds.intersects(clientArea)) {
+						redraw(bounds.x, bounds.y, bounds.width, bounds.height, false);
+					}
+				}
+			}
+		}
+		dirtyItems.clear();
+	}
+
+	Rectangle getItemBounds(final int index) {
+		final int columns = getColumnCount(getClientArea().width);
+		final int column = index % columns;
+		final int row = index / columns;
+
+		return new Rectangle(spacing + column * (tileWidth + spacing), spacing + row * (tileHeight + spacing) - topPixel, tileWidth,
+				tileHeight);
+	}
+
+	private int getColumnCount(final int width) {
+		return Math.max(1, (width - spacing) / (tileWidth + spacing));
+	}
+
+	private int getItemIndex(final int x, final int y) {
+		final int columns = getColumnCount(getClientArea().width);
+		final int offsetX = x - spacing;
+		final int offsetY = y + topPixel - spacing;
+
+		if (offsetX < 0 || offsetY < 0 || offsetX % (tileWidth + spacing) >= tileWidth || offsetY % (tileHeight + spacing) >= tileHeight) {
+			return -1;
+		}
+
+		final int column = offsetX / (tileWidth + spacing);
+		final int index = offsetY / (tileHeight + spacing) * columns + column;
+
+		return column < columns && index < items.size() ? index : -1;
+	}
+
+	private void paint(final GC gc, final Rectangle clipping) {
+		final int columns = getColumnCount(getClientArea().width);
+		final int rowHeight = tileHeight + spacing;
+		final int firstRow = Math.max(0, (clipping.y + topPixel - spacing) / rowHeight);
+		final int lastRow = (clipping.y + clipping.height + topPixel) / rowHeight;
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = 0; column < columns; column++) {
+				final int index = row * columns + column;
+
+				if (index >= items.size()) {
+					return;
+				}
+
+				final Rectangle bounds = getItemBounds(index);
+
+				if (bounds.intersects(clipping)) {
+					final TileItem item = items.get(index);
+
+					laidOutItems.put(item, Boolean.TRUE);
+					item.paint(gc, bounds.x, bounds.y, item == hoverItem);
+				}
+			}
+		}
+	}
+
+	// the renderer lays out the item for hit-testing, so the item has to be
+	// registered to release its layouts later
+	private TileRenderer getLaidOutRenderer(final TileItem item) {
+		laidOutItems.put(item, Boolean.TRUE);
+		return item.getRenderer();
+	}
+
+	private void updateScrollBar() {
+		final Rectangle clientArea = getClientArea();
+		final int columns = getColumnCount(clientArea.width);
+		final int rows = (items.size() + columns - 1) / columns;
+		final int totalHeight = rows * (tileHeight + spacing) + spacing;
+		final int visibleHeight = Math.max(1, clientArea.height);
+		final ScrollBar verticalBar = getVerticalBar();
+
+		verticalBar.setValues(topPixel, 0, Math.max(totalHeight, visibleHeight), visibleHeight, Math.max(1, tileHeight / 4), visibleHeight);
+		verticalBar.setEnabled(totalHeight > visibleHeight);
+
+		final int visibleRows = visibleHeight / (tileHeight + spacing) + 2;
+		layoutCacheSize = Math.max(MIN_LAYOUT_CACHE_SIZE, 2 * visibleRows * columns);
+
+		if (topPixel != verticalBar.getSelection()) {
+			topPixel = verticalBar.getSelection();
+			redraw();
+		}
+	}
+
+	private void scrollTo(final int newTopPixel) {
+		final ScrollBar verticalBar = getVerticalBar();
+		final int top = Math.max(0, Math.min(newTopPixel, verticalBar.getMaximum() - verticalBar.getThumb()));
+
+		if (top != topPixel) {
+			final Rectangle clientArea = getClientArea();
+			final int delta = topPixel - top;
+
+			topPixel = top;
+			verticalBar.setSelection(top);
+			scroll(0, delta, 0, 0, clientArea.width, clientArea.height, false);
+		}
+	}
+
+	private void setHoverItem(final TileItem item) {
+		if (item != hoverItem) {
+			final TileItem oldItem = hoverItem;
+			hoverItem = item;
+
+			if (oldItem != null && oldItem.isHighlight()) redraw(oldItem);
+			if (item != null && item.isHighlight()) redraw(item);
+		}
+	}
+
+	private void handleMouseMove(final Event event) {
+		final int index = getItemIndex(event.x, event.y);
+		final TileItem item = index < 0 ? null : items.get(index);
+		Cursor newCursor = cursor;
+
+		setHoverItem(item);
+
+		if (item != null) {
+			final Rectangle bounds = getItemBounds(index);
+
+			if (getLaidOutRenderer(item).getLinkAt(event.x - bounds.x, event.y - bounds.y) != null) {
+				newCursor = getDisplay().getSystemCursor(SWT.CURSOR_HAND);
+			}
+		}
+
+		super.setCursor(newCursor);
+	}
+
+	private void handleMouseDown(final Event event) {
+		final int index = getItemIndex(event.x, event.y);
+
+		if (index >= 0) {
+			final TileItem item = items.get(index);
+			final Rectangle bounds = getItemBounds(index);
+			final int x = event.x - bounds.x;
+			final int y = event.y - bounds.y;
+			final TileRenderer renderer = getLaidOutRenderer(item);
+			final String link = renderer.getLinkAt(x, y);
+			final Event e = new Event();
+
+			e.index = index;
+
+			if (link != null) {
+				e.detail = Greip.LINK;
+				e.data = link;
+			} else if (item.getDecorator() != null && renderer.getDecoratorBounds().contains(x, y)) {
+				e.detail = Greip.DECORATOR;
+			}
+
+			notifyListeners(SWT.Selection, e);
+		}
+	}
+}
@@ -0,0 +1,536 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.tile;
+
+import java.util.function.Consumer;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.greip.common.PendingUpdates;
+import org.greip.common.Util;
+import org.greip.decorator.AbstractDecorator;
+import org.greip.decorator.IDecorator;
+
+/**
+ * Instances of this class represent a tile of a {@link TileGrid}. An item has
+ * the same appearance as a {@link Tile}, but it is no native control. It is
+ * painted by the grid, if it is visible.
+ * <p>
+ * Decorators of items must be created with the grid as parent. Decorators
+ * based on {@link AbstractDecorator} redraw only the item.
+ * </p>
+ *
+ * @see TileGrid
+ *
+ * @author Thomas Lorbeer
+ */
+public final class TileItem {
+
+	private final TileGrid parent;
+	private final TileRenderer renderer;
+	private final PendingUpdates pendingUpdates;
+	private int index = -1;
+	private boolean highlight;
+	private boolean disposed;
+	private Object data;
+
+	/**
+	 * Constructs a new item and appends it to the items of the grid.
+	 *
+	 * @param parent
+	 *        the grid (cannot be null)
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_NULL_ARGUMENT - if the parent is null</li>
+	 *            </ul>
+	 */
+	public TileItem(final TileGrid parent) {
+		this.parent = Util.checkWidget(parent, false);
+		this.renderer = new TileRenderer(parent, () -> parent.redraw(this));
+		this.pendingUpdates = PendingUpdates.getInstance(parent.getDisplay());
+
+		renderer.setBackground(parent.getDisplay().getSystemColor(SWT.COLOR_WHITE));
+		parent.addItem(this);
+	}
+
+	/**
+	 * Returns the grid which contains the item.
+	 *
+	 * @return the grid
+	 */
+	public TileGrid getParent() {
+		return parent;
+	}
+
+	/**
+	 * Returns the bounds of the item relative to the grid.
+	 *
+	 * @return the bounds
+	 */
+	public Rectangle getBounds() {
+		checkItem();
+		return parent.getItemBounds(parent.indexOf(this));
+	}
+
+	/**
+	 * Removes the item from the grid and releases its resources.
+	 */
+	public void dispose() {
+		if (!disposed) {
+			disposed = true;
+			parent.removeItem(this);
+			renderer.dispose();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the item has been disposed.
+	 *
+	 * @return the disposed state
+	 */
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	/**
+	 * Adds a new text section to the list of sections.
+	 *
+	 * @param section
+	 *        the new text section
+	 *
+	 * @see Tile#addTextSection(TextSection)
+	 */
+	public void addTextSection(final TextSection section) {
+		checkItem();
+		renderer.addTextSection(section);
+		renderer.redraw();
+	}
+
+	/**
+	 * Removes the specified sections or all sections, if no section is
+	 * specified.
+	 *
+	 * @param sections
+	 *        the sections to remove
+	 */
+	public void removeTextSections(final TextSection... sections) {
+		checkItem();
+		renderer.removeTextSections(sections);
+	}
+
+	/**
+	 * Returns the n'th text section. The first text section has index 0.
+	 *
+	 * @param index
+	 *        the index
+	 *
+	 * @return the text section
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_RANGE - if the index less than zero or
+	 *            greater or equal to the count of text sections</li>
+	 *            </ul>
+	 */
+	public TextSection getTextSection(final int index) {
+		return renderer.getTextSection(index);
+	}
+
+	/**
+	 * Posts a new text for the n'th text section. This method may be called from
+	 * any thread, only the latest of several texts posted for a section in a
+	 * short time is set.
+	 *
+	 * @param index
+	 *        the index of the text section
+	 * @param text
+	 *        the new text (null not allowed)
+	 *
+	 * @exception IllegalArgumentException
+	 *            <ul>
+	 *            <li>ERROR_INVALID_RANGE - if the index less than zero or
+	 *            greater or equal to the count of text sections</li>
+	 *            <li>ERROR_NULL_ARGUMENT - if the text is null</li>
+	 *            </ul>
+	 *
+	 * @see Tile#postText(int, String)
+	 */
+	public void postText(final int index, final String text) {
+		if (index < 0 || index >= getTextSectionCount()) SWT.error(SWT.ERROR_INVALID_RANGE);
+		if (text == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+
+		renderer.compileText(text);
+
+		// the section may have been removed until the text is set
+		pendingUpdates.post(this, Integer.valueOf(index), () -> {
+			if (!isDisposed() && index < getTextSectionCount()) getTextSection(index).setText(text);
+		});
+	}
+
+	/**
+	 * Returns the count of text sections.
+	 *
+	 * @return the count
+	 */
+	public int getTextSectionCount() {
+		return renderer.getTextSectionCount();
+	}
+
+	/**
+	 * Returns the current decorator.
+	 *
+	 * @return the decorator
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends IDecorator> T getDecorator() {
+		return (T) renderer.getDecorator();
+	}
+
+	/**
+	 * Sets the decorator of the item.
+	 *
+	 * @param decorator
+	 *        the decorator or <code>null</code>
+	 *
+	 * @see Tile#setDecorator(IDecorator)
+	 */
+	public void setDecorator(final IDecorator decorator) {
+		checkItem();
+
+		if (renderer.getDecorator() instanceof AbstractDecorator) {
+			((AbstractDecorator) renderer.getDecorator()).setRedrawHandler(null);
+		}
+		if (decorator instanceof AbstractDecorator) {
+			((AbstractDecorator) decorator).setRedrawHandler(() -> parent.redraw(this));
+		}
+
+		renderer.setDecorator(decorator);
+	}
+
+	/**
+	 * Returns a value which describes the position of the decorator.
+	 *
+	 * @return the alignment
+	 */
+	public int getDecoratorAlignment() {
+		return renderer.getDecoratorAlignment();
+	}
+
+	/**
+	 * Controls the position of the decorator.
+	 *
+	 * @param alignment
+	 *        the alignment
+	 *
+	 * @see Tile#setDecoratorAlignment(int)
+	 */
+	public void setDecoratorAlignment(final int alignment) {
+		checkItem();
+		renderer.setDecoratorAlignment(alignment);
+	}
+
+	/**
+	 * Returns the spacing between decorator and text sections.
+	 *
+	 * @return the spacing in pixels
+	 */
+	public int getDecoratorSpacing() {
+		return renderer.getDecoratorSpacing();
+	}
+
+	/**
+	 * Defines the spacing between decorator and text sections.
+	 *
+	 * @param decoratorSpacing
+	 *        the spacing in pixels
+	 *
+	 * @see Tile#setDecoratorSpacing(int)
+	 */
+	public void setDecoratorSpacing(final int decoratorSpacing) {
+		checkItem();
+		renderer.setDecoratorSpacing(decoratorSpacing);
+	}
+
+	/**
+	 * Returns the margin width and height.
+	 *
+	 * @return the margins
+	 */
+	public Point getMargins() {
+		return renderer.getMargins();
+	}
+
+	/**
+	 * Defines the margin width and height.
+	 *
+	 * @param marginWidth
+	 *        the margin width in pixels
+	 * @param marginHeight
+	 *        the margin height in pixels
+	 *
+	 * @see Tile#setMargins(int, int)
+	 */
+	public void setMargins(final int marginWidth, final int marginHeight) {
+		checkItem();
+		renderer.setMargins(marginWidth, marginHeight);
+	}
+
+	/**
+	 * Returns the spacing between the text sections.
+	 *
+	 * @return the spacing in pixels
+	 */
+	public int getTextSpacing() {
+		return renderer.getTextSpacing();
+	}
+
+	/**
+	 * Defines the spacing between the text sections.
+	 *
+	 * @param textSpacing
+	 *        the spacing in pixels
+	 *
+	 * @see Tile#setTextSpacing(int)
+	 */
+	public void setTextSpacing(final int textSpacing) {
+		checkItem();
+		renderer.setTextSpacing(textSpacing);
+	}
+
+	/**
+	 * Returns the background color.
+	 *
+	 * @return the color
+	 */
+	public Color getBackground() {
+		return renderer.getBackground();
+	}
+
+	/**
+	 * Sets the background color. The default is white, <code>null</code> uses
+	 * the background of the grid.
+	 *
+	 * @param background
+	 *        the color or <code>null</code>
+	 */
+	public void setBackground(final Color background) {
+		checkItem();
+		renderer.setBackground(background);
+	}
+
+	/**
+	 * Returns the background image.
+	 *
+	 * @return the image or <code>null</code>
+	 */
+	public Image getBackgroundImage() {
+		return renderer.getBackgroundImage();
+	}
+
+	/**
+	 * Sets the background image.
+	 *
+	 * @param image
+	 *        the image or <code>null</code>
+	 */
+	public void setBackgroundImage(final Image image) {
+		checkItem();
+		renderer.setBackgroundImage(image);
+	}
+
+	/**
+	 * Returns the foreground color.
+	 *
+	 * @return the color
+	 */
+	public Color getForeground() {
+		return renderer.getForeground();
+	}
+
+	/**
+	 * Sets the foreground color, <code>null</code> uses the foreground of the
+	 * grid.
+	 *
+	 * @param foreground
+	 *        the color or <code>null</code>
+	 */
+	public void setForeground(final Color foreground) {
+		checkItem();
+		renderer.setForeground(foreground);
+	}
+
+	/**
+	 * Returns the font.
+	 *
+	 * @return the font
+	 */
+	public Font getFont() {
+		return renderer.getFont();
+	}
+
+	/**
+	 * Sets the font, <code>null</code> uses the font of the grid.
+	 *
+	 * @param font
+	 *        the font or <code>null</code>
+	 */
+	public void setFont(final Font font) {
+		checkItem();
+		renderer.setFont(font);
+	}
+
+	/**
+	 * Returns the color of the border.
+	 *
+	 * @return the color
+	 */
+	public Color getBorderColor() {
+		return renderer.getBorderColor();
+	}
+
+	/**
+	 * Defines the color of the border.
+	 *
+	 * @param borderColor
+	 *        the border color
+	 *
+	 * @see Tile#setBorderColor(Color)
+	 */
+	public void setBorderColor(final Color borderColor) {
+		checkItem();
+		renderer.setBorderColor(borderColor);
+	}
+
+	/**
+	 * Returns the width of the border.
+	 *
+	 * @return the border width
+	 */
+	public int getBorderWidth() {
+		return renderer.getBorderWidth();
+	}
+
+	/**
+	 * Defines the width of the border.
+	 *
+	 * @param borderWidth
+	 *        the border width (cannot be less then zero)
+	 *
+	 * @see Tile#setBorderWidth(int)
+	 */
+	public void setBorderWidth(final int borderWidth) {
+		checkItem();
+		renderer.setBorderWidth(borderWidth);
+	}
+
+	/**
+	 * Gets the radius of the rounded corners.
+	 *
+	 * @return the radius
+	 */
+	public int getCornerRadius() {
+		return renderer.getCornerRadius();
+	}
+
+	/**
+	 * Defines the radius of the rounded corners.
+	 *
+	 * @param cornerRadius
+	 *        the radius of the rounded corners
+	 *
+	 * @see Tile#setCornerRadius(int)
+	 */
+	public void setCornerRadius(final int cornerRadius) {
+		checkItem();
+		renderer.setCornerRadius(cornerRadius);
+	}
+
+	/**
+	 * Returns <code>true</code> if highlighting on mouse hover is enabled,
+	 * otherwise <code>false</code>.
+	 *
+	 * @return the highlighting state
+	 */
+	public boolean isHighlight() {
+		return highlight;
+	}
+
+	/**
+	 * Enables or disables the mouse hover effect.
+	 *
+	 * @param highlight
+	 *        <code>true</code> if highlighting on mouse hover is enabled,
+	 *        otherwise <code>false</code>.
+	 */
+	public void setHighlight(final boolean highlight) {
+		checkItem();
+		this.highlight = highlight;
+		renderer.redraw();
+	}
+
+	/**
+	 * Applies several changes to the item and its text sections at once. The
+	 * item is laid out and redrawn only once after all changes are done.
+	 *
+	 * @param modifier
+	 *        the code which changes the item
+	 *
+	 * @see Tile#modify(Consumer)
+	 */
+	public void modify(final Consumer<TileItem> modifier) {
+		checkItem();
+		if (modifier == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		renderer.modify(() -> modifier.accept(this));
+	}
+
+	/**
+	 * Returns the application defined data of the item.
+	 *
+	 * @return the data
+	 */
+	public Object getData() {
+		return data;
+	}
+
+	/**
+	 * Sets the application defined data of the item.
+	 *
+	 * @param data
+	 *        the data
+	 */
+	public void setData(final Object data) {
+		this.data = data;
+	}
+
+	TileRenderer getRenderer() {
+		return renderer;
+	}
+
+	int getIndex() {
+		return index;
+	}
+
+	void setIndex(final int index) {
+		this.index = index;
+	}
+
+	void paint(final GC gc, final int x, final int y, final boolean selected) {
+		renderer.paint(gc, x, y, selected && highlight, parent.getBackground());
+	}
+
+	private void checkItem() {
+		if (disposed) SWT.error(SWT.ERROR_WIDGET_DISPOSED);
+	}
+}
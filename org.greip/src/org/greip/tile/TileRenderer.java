@@ -0,0 +1,867 @@
+/**
+ * Copyright (c) 2019 by Thomas Lorbeer. All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ **/
+package org.greip.tile;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.graphics.TextLayout;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.greip.common.Util;
+import org.greip.decorator.IDecorator;
+import org.greip.internal.BorderPainter;
+import org.greip.internal.IBorderable;
+import org.greip.markup.Anchor;
+import org.greip.markup.HtmlMarkupParser;
+import org.greip.markup.MarkupCache;
+import org.greip.markup.MarkupText;
+import org.greip.tile.TextSection.TextSectionModifyListener;
+
+/**
+ * Holds the appearance of a tile and lays out and paints its decorator and
+ * text sections. The renderer is shared by {@link Tile} and the items of a
+ * {@link TileGrid} and paints at any location of a GC.
+ *
+ * @author Thomas Lorbeer
+ */
+final class TileRenderer implements IBorderable {
+
+	private static class TextArea {
+		private final MarkupText markupText;
+		private int x;
+		private int y;
+		private int[] margins;
+
+		public TextArea(final MarkupText markupText) {
+			this.markupText = markupText;
+		}
+
+		public TextLayout getLayout() {
+			return markupText.getTextLayout();
+		}
+
+		public void setLocation(final int x, final int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		public Rectangle getBounds() {
+			final TextLayout layout = getLayout();
+			final Rectangle bounds = layout.getBounds();
+			return new Rectangle(x, y, bounds.width, layout.getText().isEmpty() ? 0 : bounds.height);
+		}
+
+		public void draw(final GC gc, final int offsetX, final int offsetY) {
+			getLayout().draw(gc, x + offsetX, y + offsetY);
+		}
+
+		public void dispose() {
+			markupText.dispose();
+		}
+
+		public int[] getMargins() {
+			return margins;
+		}
+
+		public void setMargins(final int[] margins) {
+			this.margins = margins;
+		}
+	}
+
+	private static final int TEXT_AREA_CACHE_SIZE = 4;
+
+	private final Control control;
+	private final Runnable redrawHandler;
+	private final MarkupCache markupCache;
+
+	private IDecorator decorator;
+	private int decoratorAlignment = SWT.RIGHT;
+
+	private int marginHeight = 10;
+	private int marginWidth = 10;
+	private int decoratorSpacing = 10;
+	private int textSpacing = 5;
+
+	private final BorderPainter border = new BorderPainter(this);
+	private int borderWidth;
+	private Color borderColor;
+	private int cornerRadius;
+
+	private Color background;
+	private Image backgroundImage;
+	private Color foreground;
+	private Font font;
+	private Color[] dimmedBackground;
+	private final Image[] backgroundRasters = new Image[2];
+	private final Point size = new Point(0, 0);
+
+	private final List<TextSection> textSections = new ArrayList<>();
+	private int batchDepth;
+	private boolean invalidatePending;
+	private boolean redrawPending;
+
+	private final Map<List<Integer>, TextArea[]> textAreaCache = new LinkedHashMap<List<Integer>, TextArea[]>(8, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<List<Integer>, TextArea[]> eldest) {
+			if (size() > TEXT_AREA_CACHE_SIZE) {
+				disposeTextAreas(eldest.getValue());
+				return true;
+			}
+			return false;
+		}
+	};
+
+	private final TextSectionModifyListener sectionModifyListener = s -> {
+		invalidateTextAreas();
+		redraw();
+	};
+
+	/**
+	 * Creates a new renderer.
+	 *
+	 * @param control
+	 *        the control to paint on, which provides the default font and
+	 *        foreground color
+	 * @param redrawHandler
+	 *        called if the tile has to be repainted
+	 */
+	TileRenderer(final Control control, final Runnable redrawHandler) {
+		this.control = control;
+		this.redrawHandler = redrawHandler;
+		this.markupCache = MarkupCache.getInstance(control.getDisplay());
+	}
+
+	/**
+	 * Compiles the markup of a text in advance, so only fonts and colors are
+	 * bound when the text is laid out. This method may be called from any
+	 * thread.
+	 *
+	 * @param text
+	 *        the markup text
+	 */
+	void compileText(final String text) {
+		try {
+			markupCache.compile(new HtmlMarkupParser(), text);
+		} catch (final ParseException e) {
+			// ignore, the error is reported when the text is laid out
+		}
+	}
+
+	/**
+	 * Paints the tile.
+	 *
+	 * @param gc
+	 *        the graphics context
+	 * @param x
+	 *        the x coordinate of the tile
+	 * @param y
+	 *        the y coordinate of the tile
+	 * @param selected
+	 *        <code>true</code> to paint the tile highlighted
+	 * @param edgeBackground
+	 *        the color outside of the rounded corners
+	 */
+	void paint(final GC gc, final int x, final int y, final boolean selected, final Color edgeBackground) {
+		gc.setAntialias(SWT.ON);
+
+		paintBackground(gc, x, y, selected);
+		gc.setForeground(getForeground());
+
+		for (final TextArea textArea : getTextAreas(size.x, size.y)) {
+			textArea.draw(gc, x, y);
+		}
+
+		if (hasDecorator()) {
+			final Rectangle decoratorBounds = getDecoratorBounds();
+			final Rectangle clipping = gc.getClipping();
+
+			decoratorBounds.x += x;
+			decoratorBounds.y += y;
+
+			gc.setClipping(decoratorBounds.intersection(clipping));
+			decorator.doPaint(gc, decoratorBounds.x, decoratorBounds.y);
+			gc.setClipping(clipping);
+		}
+
+		border.doPaint(gc, x, y, edgeBackground);
+	}
+
+	private void paintBackground(final GC gc, final int x, final int y, final boolean selected) {
+		if (backgroundImage != null && !selected) {
+			if (backgroundImage != control.getBackgroundImage()) {
+				// the control does not paint this image as its own background
+				final Rectangle imageBounds = backgroundImage.getBounds();
+				final int width = Math.min(size.x, imageBounds.width);
+				final int height = Math.min(size.y, imageBounds.height);
+
+				gc.drawImage(backgroundImage, 0, 0, width, height, x, y, width, height);
+			}
+
+		} else if (size.x > 0 && size.y > 0) {
+			gc.drawImage(getBackgroundRaster(gc, selected), x, y);
+		}
+	}
+
+	private Image getBackgroundRaster(final GC gc, final boolean selected) {
+		final int index = selected ? 1 : 0;
+
+		if (backgroundRasters[index] == null) {
+			final Image raster = new Image(gc.getDevice(), size.x, size.y);
+
+			Util.withResource(new GC(raster), rasterGC -> {
+				rasterGC.setAntialias(SWT.ON);
+				rasterGC.setBackground(control.getBackground());
+				rasterGC.fillRectangle(0, 0, size.x, size.y);
+				renderBackground(rasterGC, selected);
+			});
+
+			backgroundRasters[index] = raster;
+		}
+
+		return backgroundRasters[index];
+	}
+
+	private void renderBackground(final GC gc, final boolean selected) {
+		if (backgroundImage == null) {
+			final int innerRadius = Math.max(0, 2 * cornerRadius - borderWidth);
+			final Color[] dimmedBackground = getDimmedBackground();
+			final Color background = getBackground();
+
+			gc.setBackground(selected ? dimmedBackground[0] : background);
+			gc.fillRoundRectangle(borderWidth, borderWidth, size.x - 2 * borderWidth, 2 * cornerRadius, innerRadius, innerRadius);
+			gc.setForeground(selected ? dimmedBackground[0] : background);
+			gc.setBackground(selected ? dimmedBackground[1] : background);
+			gc.fillGradientRectangle(borderWidth, cornerRadius, size.x - 2 * borderWidth, size.y / 2 - cornerRadius, true);
+
+			gc.setForeground(selected ? dimmedBackground[2] : background);
+			gc.setBackground(selected ? dimmedBackground[4] : background);
+			gc.fillRoundRectangle(borderWidth, size.y - borderWidth - 2 * cornerRadius, size.x - 2 * borderWidth, 2 * cornerRadius,
+					innerRadius, innerRadius);
+			gc.fillGradientRectangle(borderWidth, size.y / 2, size.x - 2 * borderWidth, size.y / 2 - cornerRadius, true);
+
+		} else {
+			gc.setBackground(getBackground());
+			gc.fillRectangle(0, 0, size.x, size.y);
+			gc.setAlpha(230);
+			gc.drawImage(backgroundImage, 0, 0);
+			gc.setAlpha(255);
+		}
+	}
+
+	/**
+	 * Computes the preferred size of the tile. The height follows from the
+	 * width, so there is no height hint.
+	 *
+	 * @param wHint
+	 *        the width hint or <code>SWT.DEFAULT</code>
+	 *
+	 * @return the preferred size
+	 */
+	Point computeSize(final int wHint) {
+		final Point size = new Point(0, 0);
+
+		final TextArea[] textAreas = getTextAreas(wHint, SWT.DEFAULT);
+		final int height = getTotalTextHeight(textAreas);
+		final int width = getMaxTextWidth(textAreas);
+
+		size.x = 2 * (marginWidth + borderWidth);
+		size.y = 2 * (marginHeight + borderWidth);
+
+		final Point decoratorSize = getDecoratorSize();
+
+		if ((decoratorAlignment & SWT.LEFT) > 0 || (decoratorAlignment & SWT.RIGHT) > 0) {
+			size.x += decoratorSize.x + getEffectiveDecoratorSpacing() + width;
+			size.y += Math.max(decoratorSize.y, height);
+
+		} else if (decoratorAlignment == SWT.CENTER) {
+			final int nonEmptyTextCount = getNonEmptyTextCount();
+
+			size.x += Math.max(decoratorSize.x, width);
+			size.y += decoratorSize.y + height + Math.min(nonEmptyTextCount, 2) * getEffectiveDecoratorSpacing()
+					- (nonEmptyTextCount >= 2 ? textSpacing : 0);
+
+		} else {
+			size.x += Math.max(decoratorSize.x, width);
+			size.y += decoratorSize.y + getEffectiveDecoratorSpacing() + height;
+		}
+
+		return size;
+	}
+
+	/**
+	 * Returns the link target at the specified location.
+	 *
+	 * @param x
+	 *        the x coordinate relative to the tile
+	 * @param y
+	 *        the y coordinate relative to the tile
+	 *
+	 * @return the link target or <code>null</code> if there is no link
+	 */
+	String getLinkAt(final int x, final int y) {
+		for (final TextArea textArea : getTextAreas(size.x, size.y)) {
+			final Rectangle bounds = textArea.getBounds();
+
+			if (bounds.contains(x, y)) {
+				final Anchor link = textArea.markupText.getLinkAtLocation(x - bounds.x, y - bounds.y);
+				return link == null ? null : link.href;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the bounds of the decorator relative to the tile.
+	 *
+	 * @return the bounds
+	 */
+	Rectangle getDecoratorBounds() {
+		final Point decoratorSize = getDecoratorSize();
+		int x;
+		int y;
+
+		if (decoratorAlignment == SWT.BOTTOM) {
+			x = (size.x - 2 * marginWidth - decoratorSize.x) / 2 + marginWidth;
+			y = size.y - marginHeight - decoratorSize.y - borderWidth;
+		} else if (decoratorAlignment == SWT.TOP) {
+			x = (size.x - 2 * marginWidth - decoratorSize.x) / 2 + marginWidth;
+			y = marginHeight + borderWidth;
+		} else if (decoratorAlignment == SWT.CENTER) {
+			x = (size.x - 2 * marginWidth - decoratorSize.x) / 2 + marginWidth;
+			y = marginHeight + borderWidth;
+			if (!textSections.isEmpty()) {
+				final int height = getTextAreas(size.x, size.y)[0].getBounds().height;
+				y += height + (height == 0 ? 0 : decoratorSpacing);
+			}
+		} else {
+			if ((decoratorAlignment & SWT.LEFT) > 0) {
+				x = marginWidth + borderWidth;
+			} else {
+				x = size.x - decoratorSize.x - marginWidth - borderWidth;
+			}
+			if ((decoratorAlignment & SWT.TOP) > 0) {
+				y = marginHeight + borderWidth;
+			} else if ((decoratorAlignment & SWT.BOTTOM) > 0) {
+				y = size.y - marginHeight - decoratorSize.y - borderWidth;
+			} else {
+				y = marginHeight + Math.max(0, (size.y - decoratorSize.y) / 2 - marginHeight);
+			}
+		}
+
+		x = Math.max(x, borderWidth + marginWidth);
+		y = Math.max(y, borderWidth + marginHeight);
+
+		// Clipping auf sichtbaren Bereich, Rand wird nicht übermalt
+		final int maxHeight = size.y - borderWidth - marginHeight - y;
+		final int maxWidth = size.x - borderWidth - marginWidth - x;
+
+		return new Rectangle(x, y, Math.min(decoratorSize.x, maxWidth), Math.min(decoratorSize.y, maxHeight));
+	}
+
+	void addTextSection(final TextSection section) {
+		textSections.add(section);
+		section.addModifyListener(sectionModifyListener);
+		invalidateTextAreas();
+	}
+
+	void removeTextSections(final TextSection... sections) {
+		final TextSection[] sectionsToRemove = sections == null || sections.length == 0 ? textSections.stream().toArray(TextSection[]::new)
+				: sections;
+
+		for (final TextSection section : sectionsToRemove) {
+			section.removeModifyListener(sectionModifyListener);
+			textSections.remove(section);
+		}
+
+		invalidateTextAreas();
+		redraw();
+	}
+
+	TextSection getTextSection(final int index) {
+		if (index < 0 || index >= textSections.size()) SWT.error(SWT.ERROR_INVALID_RANGE);
+		return textSections.get(index);
+	}
+
+	int getTextSectionCount() {
+		return textSections.size();
+	}
+
+	@Override
+	public Point getSize() {
+		return new Point(size.x, size.y);
+	}
+
+	void setSize(final int width, final int height) {
+		if (size.x != width || size.y != height) {
+			size.x = width;
+			size.y = height;
+			invalidateBackground();
+			invalidateTextAreas();
+		}
+	}
+
+	Color getBackground() {
+		return background == null ? control.getBackground() : background;
+	}
+
+	void setBackground(final Color background) {
+		if (background != null && background.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.background = background;
+		disposeBackgroundColors();
+		invalidateBackground();
+		redraw();
+	}
+
+	Image getBackgroundImage() {
+		return backgroundImage;
+	}
+
+	void setBackgroundImage(final Image backgroundImage) {
+		if (backgroundImage != null && backgroundImage.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.backgroundImage = backgroundImage;
+		invalidateBackground();
+		redraw();
+	}
+
+	Color getForeground() {
+		return foreground == null ? control.getForeground() : foreground;
+	}
+
+	void setForeground(final Color foreground) {
+		if (foreground != null && foreground.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.foreground = foreground;
+		redraw();
+	}
+
+	Font getFont() {
+		return font == null ? control.getFont() : font;
+	}
+
+	void setFont(final Font font) {
+		if (font != null && font.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.font = font;
+		invalidateTextAreas();
+		redraw();
+	}
+
+	@Override
+	public Color getBorderColor() {
+		return borderColor != null ? borderColor : control.getDisplay().getSystemColor(SWT.COLOR_WIDGET_BORDER);
+	}
+
+	void setBorderColor(final Color borderColor) {
+		if (borderColor != null && borderColor.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.borderColor = borderColor;
+		redraw();
+	}
+
+	@Override
+	public int getBorderWidth() {
+		return borderWidth;
+	}
+
+	void setBorderWidth(final int borderWidth) {
+		if (borderWidth < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.borderWidth = borderWidth;
+		invalidateBackground();
+		invalidateTextAreas();
+		redraw();
+	}
+
+	@Override
+	public int getCornerRadius() {
+		return cornerRadius;
+	}
+
+	void setCornerRadius(final int cornerRadius) {
+		if (cornerRadius < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.cornerRadius = cornerRadius;
+		invalidateBackground();
+		redraw();
+	}
+
+	IDecorator getDecorator() {
+		return decorator;
+	}
+
+	void setDecorator(final IDecorator decorator) {
+		this.decorator = decorator;
+		invalidateTextAreas();
+		redraw();
+	}
+
+	int getDecoratorAlignment() {
+		return decoratorAlignment;
+	}
+
+	void setDecoratorAlignment(final int alignment) {
+		switch (alignment) {
+			case SWT.LEFT:
+			case SWT.RIGHT:
+			case SWT.TOP:
+			case SWT.BOTTOM:
+			case SWT.CENTER:
+			case SWT.LEFT | SWT.TOP:
+			case SWT.RIGHT | SWT.TOP:
+			case SWT.LEFT | SWT.BOTTOM:
+			case SWT.RIGHT | SWT.BOTTOM:
+				this.decoratorAlignment = alignment;
+				invalidateTextAreas();
+				redraw();
+				break;
+
+			default:
+				SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+	}
+
+	int getDecoratorSpacing() {
+		return decoratorSpacing;
+	}
+
+	void setDecoratorSpacing(final int decoratorSpacing) {
+		if (decoratorSpacing < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.decoratorSpacing = decoratorSpacing;
+		invalidateTextAreas();
+		redraw();
+	}
+
+	Point getMargins() {
+		return new Point(marginWidth, marginHeight);
+	}
+
+	void setMargins(final int marginWidth, final int marginHeight) {
+		if (marginHeight < 0 || marginWidth < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.marginHeight = marginHeight;
+		this.marginWidth = marginWidth;
+		invalidateTextAreas();
+		redraw();
+	}
+
+	int getTextSpacing() {
+		return textSpacing;
+	}
+
+	void setTextSpacing(final int textSpacing) {
+		if (textSpacing < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		this.textSpacing = textSpacing;
+		invalidateTextAreas();
+		redraw();
+	}
+
+	/**
+	 * Applies several changes at once. Invalidations and redraw requests are
+	 * deferred until the end of the outermost batch and performed once.
+	 *
+	 * @param modifier
+	 *        the code which changes the tile
+	 */
+	void modify(final Runnable modifier) {
+		batchDepth++;
+		try {
+			modifier.run();
+		} finally {
+			batchDepth--;
+		}
+
+		if (batchDepth == 0) {
+			if (invalidatePending) {
+				invalidateTextAreas();
+			}
+			if (redrawPending) {
+				redraw();
+			}
+		}
+	}
+
+	/**
+	 * Disposes the cached text layouts. They are recreated on the next paint.
+	 */
+	void invalidateTextAreas() {
+		if (batchDepth > 0) {
+			invalidatePending = true;
+		} else {
+			invalidatePending = false;
+			textAreaCache.values().forEach(TileRenderer::disposeTextAreas);
+			textAreaCache.clear();
+		}
+	}
+
+	/**
+	 * Disposes the cached background rasters. They are recreated on the next
+	 * paint.
+	 */
+	void invalidateBackground() {
+		for (int i = 0; i < backgroundRasters.length; i++) {
+			if (backgroundRasters[i] != null) {
+				backgroundRasters[i].dispose();
+				backgroundRasters[i] = null;
+			}
+		}
+	}
+
+	/**
+	 * Releases all resources and detaches the text sections.
+	 */
+	void dispose() {
+		textSections.forEach(s -> s.removeModifyListener(sectionModifyListener));
+		disposeBackgroundColors();
+		invalidateBackground();
+		invalidateTextAreas();
+	}
+
+	/**
+	 * Requests a redraw of the tile, which is deferred within a batch.
+	 */
+	void redraw() {
+		if (batchDepth > 0) {
+			redrawPending = true;
+		} else {
+			redrawPending = false;
+			redrawHandler.run();
+		}
+	}
+
+	private Color[] getDimmedBackground() {
+		if (dimmedBackground == null) {
+			final Display display = control.getDisplay();
+			RGB backgroundRGB = getBackground().getRGB();
+			final float brightness = backgroundRGB.getHSB()[2];
+
+			if (brightness > 0.7f) {
+				backgroundRGB = Util.getDimmedRGB(backgroundRGB, -(0.3f - brightness) / 10);
+			} else if (brightness < 0.3f) {
+				backgroundRGB = Util.getDimmedRGB(backgroundRGB, 0.3f - brightness);
+			}
+
+			dimmedBackground = new Color[5];
+			dimmedBackground[0] = new Color(display, Util.getDimmedRGB(backgroundRGB, 0.07f));
+			dimmedBackground[1] = new Color(display, Util.getDimmedRGB(backgroundRGB, -0.02f));
+			dimmedBackground[2] = new Color(display, Util.getDimmedRGB(backgroundRGB, -0.07f));
+			dimmedBackground[3] = new Color(display, Util.getDimmedRGB(backgroundRGB, 0.25f));
+			dimmedBackground[4] = new Color(display, backgroundRGB);
+		}
+
+		return dimmedBackground;
+	}
+
+	private void disposeBackgroundColors() {
+		if (dimmedBackground != null) {
+			for (final Color color : dimmedBackground) {
+				color.dispose();
+			}
+			dimmedBackground = null;
+		}
+	}
+
+	private int computeMaxTextWidth(final int maxWidth) {
+		int width = maxWidth - 2 * marginWidth;
+
+		if ((decoratorAlignment & SWT.LEFT) > 0 || (decoratorAlignment & SWT.RIGHT) > 0) {
+			width -= getDecoratorSize().x + getEffectiveDecoratorSpacing();
+		}
+
+		return Math.max(10, width - 2 * borderWidth);
+	}
+
+	private int computeTextIndent() {
+		final Point decoratorSize = getDecoratorSize();
+		int x = marginWidth + borderWidth;
+
+		if ((decoratorAlignment & SWT.LEFT) > 0) {
+			x += decoratorSize.x + getEffectiveDecoratorSpacing();
+		}
+
+		return x;
+	}
+
+	private TextArea createTextArea(final int index, final int wHint, final int hHint) {
+		final int[] margins = getTextSection(index).getMargins();
+
+		final MarkupText markupText = createMarkupText(index, computeMaxTextWidth(wHint - margins[0] - margins[1]), hHint);
+		final TextArea textArea = new TextArea(markupText);
+
+		textArea.setLocation(computeTextIndent(), 0);
+		textArea.setMargins(margins);
+
+		return textArea;
+	}
+
+	private TextArea[] getTextAreas(final int wHint, final int hHint) {
+		if (invalidatePending) {
+			// layout requested within a batch
+			textAreaCache.values().forEach(TileRenderer::disposeTextAreas);
+			textAreaCache.clear();
+			invalidatePending = false;
+		}
+
+		final Point decoratorSize = getDecoratorSize();
+		final List<Integer> key = Arrays.asList(Integer.valueOf(wHint), Integer.valueOf(hHint), Integer.valueOf(decoratorSize.x),
+				Integer.valueOf(decoratorSize.y));
+
+		TextArea[] textAreas = textAreaCache.get(key);
+
+		if (textAreas == null) {
+			textAreas = createTextAreas(wHint, hHint);
+			textAreaCache.put(key, textAreas);
+		}
+
+		return textAreas;
+	}
+
+	private TextArea[] createTextAreas(final int wHint, final int hHint) {
+		final TextArea[] textAreas = IntStream.range(0, textSections.size()).mapToObj(i -> createTextArea(i, wHint, SWT.DEFAULT))
+				.toArray(TextArea[]::new);
+
+		final Point decoratorSize = getDecoratorSize();
+		int y = marginHeight + borderWidth;
+
+		if (decoratorAlignment == SWT.TOP) {
+			y += decoratorSize.y + decoratorSpacing;
+
+		} else if (decoratorAlignment == SWT.CENTER && textAreas.length > 0) {
+			final int nonEmptyTextCount = getNonEmptyTextCount();
+
+			int offset = Math.min(nonEmptyTextCount, 2) * decoratorSpacing;
+			offset -= nonEmptyTextCount >= 2 ? textSpacing : 0;
+			offset += decoratorSize.y;
+
+			for (int i = 1; i < textAreas.length; i++) {
+				final Rectangle bounds = textAreas[i].getBounds();
+				textAreas[i].setLocation(bounds.x, bounds.y + offset);
+			}
+
+		} else if (decoratorAlignment != SWT.BOTTOM) {
+			y += Math.max(0, (decoratorSize.y - getTotalTextHeight(textAreas)) / 2);
+		}
+
+		for (final TextArea textArea : textAreas) {
+			final Rectangle bounds = textArea.getBounds();
+			final int[] margins = textArea.getMargins();
+			final int height = bounds.height;
+
+			textArea.setLocation(bounds.x + margins[0], bounds.y + y + margins[2]);
+			y += height + (height == 0 ? 0 : textSpacing + margins[2] + margins[3]);
+		}
+
+		if (hHint != SWT.DEFAULT) {
+			shortenPartiallyDisplayedTextArea(textAreas, wHint, hHint);
+		}
+
+		return textAreas;
+	}
+
+	private void shortenPartiallyDisplayedTextArea(final TextArea[] textAreas, final int wHint, final int hHint) {
+		for (int i = textAreas.length - 1; i >= 0; i--) {
+			final Rectangle bounds = textAreas[i].getBounds();
+			final int height = bounds.y + bounds.height;
+
+			if (height + marginHeight + borderWidth > hHint && bounds.y < hHint) {
+				textAreas[i].dispose();
+				textAreas[i] = createTextArea(i, wHint, Math.max(0, hHint - bounds.y - marginHeight - borderWidth));
+				textAreas[i].setLocation(bounds.x, bounds.y);
+			}
+		}
+	}
+
+	private static void disposeTextAreas(final TextArea[] textAreas) {
+		for (final TextArea textArea : textAreas) {
+			textArea.dispose();
+		}
+	}
+
+	private MarkupText createMarkupText(final int index, final int maxWidth, final int maxHeight) {
+		final MarkupText markupText = new MarkupText(control, new HtmlMarkupParser());
+		final TextSection section = getTextSection(index);
+
+		markupText.setFont(Util.nvl(section.getFont(), getFont()));
+		markupText.setForeground(section.getForeground());
+		markupText.setAlignment(section.getAlignment());
+		markupText.setWrap(section.isWrap());
+
+		if (section.getTemplate() == null) {
+			markupText.layout(section.getText(), maxWidth, maxHeight);
+		} else {
+			markupText.layout(section.getTemplate(), section.getValues(), maxWidth, maxHeight);
+		}
+
+		return markupText;
+	}
+
+	private Point getDecoratorSize() {
+		return hasDecorator() ? decorator.getSize() : new Point(0, 0);
+	}
+
+	private int getEffectiveDecoratorSpacing() {
+		return hasDecorator() && hasAnyText() ? decoratorSpacing : 0;
+	}
+
+	private static int getMaxTextWidth(final TextArea[] textAreas) {
+		int maxWidth = 0;
+
+		for (final TextArea textArea : textAreas) {
+			final int[] margins = textArea.margins;
+			maxWidth = Math.max(maxWidth, textArea.getBounds().width + margins[0] + margins[1]);
+		}
+
+		return maxWidth;
+	}
+
+	private int getTotalTextHeight(final TextArea[] textAreas) {
+		int totalHeight = 0;
+
+		for (final TextArea textArea : textAreas) {
+			final int[] margins = textArea.margins;
+			totalHeight += textArea.getBounds().height + margins[2] + margins[3];
+		}
+
+		return Math.max(totalHeight + (getNonEmptyTextCount() - 1) * textSpacing, 0);
+	}
+
+	private boolean hasDecorator() {
+		return decorator != null;
+	}
+
+	private boolean hasAnyText() {
+		for (final TextSection descriptor : textSections) {
+			if (!descriptor.getText().isEmpty()) {
+				return true;
+			}
+		}
+		return !textSections.isEmpty();
+	}
+
+	private int getNonEmptyTextCount() {
+		int count = textSections.size();
+
+		for (final TextSection section : textSections) {
+			if (section.getText().isEmpty()) {
+				count--;
+			}
+		}
+		return count;
+	}
+}